@@ -0,0 +1,39 @@
+package com.example.benchmark;
+
+import com.example.Application;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 基准测试用的Spring上下文
+ * 不启动Web容器，并关闭业务日志，避免日志输出干扰测量结果
+ */
+public final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    /**
+     * 启动应用上下文
+     *
+     * @param extraArgs 额外的命令行参数（如 --dynamic-config.xxx=yyy）
+     */
+    public static ConfigurableApplicationContext start(String... extraArgs) {
+        List<String> args = new ArrayList<>();
+        args.add("--logging.level.root=WARN");
+        args.add("--logging.level.com.example=WARN");
+        args.addAll(Arrays.asList(extraArgs));
+
+        return new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .run(args.toArray(new String[0]));
+    }
+}
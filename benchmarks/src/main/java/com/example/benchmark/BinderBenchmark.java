@@ -0,0 +1,68 @@
+package com.example.benchmark;
+
+import com.example.config.AppConfig;
+import com.example.config.AppConfigBinder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+
+import java.io.IOException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 绑定与复制基准测试
+ * 对比Spring Binder（反射 + 宽松名称解析）与AppConfigBinder（静态属性表）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BinderBenchmark {
+
+    @Param({"dev", "prod", "test"})
+    public String environment;
+
+    private Properties properties;
+    private AppConfig source;
+    private AppConfig target;
+
+    @Setup
+    public void setUp() throws IOException {
+        properties = PropertiesLoaderUtils.loadProperties(new ClassPathResource("config-" + environment + ".properties"));
+        source = AppConfigBinder.bind(properties);
+        target = new AppConfig();
+    }
+
+    @Benchmark
+    public AppConfig springBinder() {
+        return new Binder(new MapConfigurationPropertySource(properties))
+                .bind("app", AppConfig.class)
+                .get();
+    }
+
+    @Benchmark
+    public AppConfig appConfigBinder() {
+        return AppConfigBinder.bind(properties);
+    }
+
+    @Benchmark
+    public AppConfig appConfigCopy() {
+        AppConfigBinder.copy(source, target);
+        return target;
+    }
+}
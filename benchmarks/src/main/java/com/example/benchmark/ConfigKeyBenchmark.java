@@ -0,0 +1,78 @@
+package com.example.benchmark;
+
+import com.example.config.ConfigKey;
+import com.example.config.DynamicConfigManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 配置项句柄读取基准测试
+ * 对比 ConfigKey.get()、AppConfig getter 与 Environment.getProperty（遍历属性源链并做类型转换）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConfigKeyBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private DynamicConfigManager configManager;
+    private Environment environment;
+
+    private ConfigKey<Integer> timeoutKey;
+    private ConfigKey<String> baseUrlKey;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        configManager = context.getBean(DynamicConfigManager.class);
+        environment = context.getEnvironment();
+        timeoutKey = configManager.key("app.api.timeout", Integer.class, 0);
+        baseUrlKey = configManager.key("app.api.base-url", String.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Integer configKeyInt() {
+        return timeoutKey.get();
+    }
+
+    @Benchmark
+    public String configKeyString() {
+        return baseUrlKey.get();
+    }
+
+    @Benchmark
+    public int appConfigGetter() {
+        return configManager.getCurrentConfig().getApi().getTimeout();
+    }
+
+    @Benchmark
+    public Integer environmentGetPropertyInt() {
+        return environment.getProperty("app.api.timeout", Integer.class);
+    }
+
+    @Benchmark
+    public String environmentGetPropertyString() {
+        return environment.getProperty("app.api.base-url");
+    }
+}
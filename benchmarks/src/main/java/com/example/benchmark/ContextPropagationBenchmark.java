@@ -0,0 +1,106 @@
+package com.example.benchmark;
+
+import com.example.config.ConfigContext;
+import com.example.config.ConfigScope;
+import com.example.config.ConfigSnapshot;
+import com.example.config.DynamicConfigManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 配置上下文传播基准测试
+ * 调用线程持有临时配置，对比 ConfigContext 捕获/绑定与 InheritableThreadLocal 的开销：
+ * - 同线程内包装并执行任务（只有捕获、绑定、恢复）
+ * - 每个任务一个新线程（InheritableThreadLocal 在创建线程时复制，ConfigContext 在包装时捕获）
+ * - 线程池提交（InheritableThreadLocal 只在创建线程时复制，池中线程读到的是全局配置，这里作为无传播的基线）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ContextPropagationBenchmark {
+
+    private static final InheritableThreadLocal<ConfigSnapshot> INHERITABLE = new InheritableThreadLocal<>();
+
+    private ConfigurableApplicationContext context;
+    private DynamicConfigManager configManager;
+    private ConfigContext configContext;
+    private ExecutorService plainPool;
+    private ExecutorService contextPool;
+
+    private Callable<ConfigSnapshot> readTask;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        configManager = context.getBean(DynamicConfigManager.class);
+        configContext = context.getBean(ConfigContext.class);
+        plainPool = Executors.newFixedThreadPool(1);
+        contextPool = configContext.wrap(Executors.newFixedThreadPool(1));
+
+        String target = "test".equals(configManager.getCurrentEnvironment()) ? "prod" : "test";
+        configManager.switchEnvironment(target, ConfigScope.TEMPORARY);
+        INHERITABLE.set(configManager.getCurrentSnapshot());
+        readTask = configManager::getCurrentSnapshot;
+    }
+
+    @TearDown
+    public void tearDown() {
+        INHERITABLE.remove();
+        configManager.clearTemporaryConfig();
+        plainPool.shutdownNow();
+        contextPool.shutdownNow();
+        context.close();
+    }
+
+    @Benchmark
+    public ConfigSnapshot wrapAndRunInline() throws Exception {
+        return configContext.wrap(readTask).call();
+    }
+
+    @Benchmark
+    public ConfigSnapshot inheritableThreadPerTask() throws InterruptedException {
+        AtomicReference<ConfigSnapshot> result = new AtomicReference<>();
+        Thread thread = new Thread(() -> result.set(INHERITABLE.get()));
+        thread.start();
+        thread.join();
+        return result.get();
+    }
+
+    @Benchmark
+    public ConfigSnapshot contextThreadPerTask() throws InterruptedException {
+        AtomicReference<ConfigSnapshot> result = new AtomicReference<>();
+        Thread thread = new Thread(configContext.wrap(() -> result.set(configManager.getCurrentSnapshot())));
+        thread.start();
+        thread.join();
+        return result.get();
+    }
+
+    @Benchmark
+    public ConfigSnapshot plainPoolSubmit() throws Exception {
+        return plainPool.submit(readTask).get();
+    }
+
+    @Benchmark
+    public ConfigSnapshot contextPoolSubmit() throws Exception {
+        return contextPool.submit(readTask).get();
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.benchmark;
+
+import com.example.config.AppConfig;
+import com.example.config.ConfigScope;
+import com.example.config.ConfigSnapshotRegistry;
+import com.example.config.DynamicConfigManager;
+import com.example.controller.ConfigController;
+import com.example.controller.OptimizedConfigTestController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DynamicConfigManager热点路径基准测试
+ * 覆盖读取（getCurrentConfig/getCurrentEnvironment/hasTemporaryConfig）、全局与临时切换、
+ * 配置文件加载，以及控制器中响应Map的构建；readWrite 组在同一进程内同时运行读线程和写线程
+ *
+ * <pre>
+ * java -jar target/benchmarks.jar HotPathBenchmark
+ * java -jar target/benchmarks.jar "HotPathBenchmark.readWrite" -prof gc
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HotPathBenchmark {
+
+    private static final String[] ENVIRONMENTS = {"dev", "prod", "test"};
+
+    private ConfigurableApplicationContext context;
+    private DynamicConfigManager configManager;
+    private ConfigSnapshotRegistry snapshotRegistry;
+    private ConfigController configController;
+    private OptimizedConfigTestController testController;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        configManager = context.getBean(DynamicConfigManager.class);
+        snapshotRegistry = context.getBean(ConfigSnapshotRegistry.class);
+        configController = context.getBean(ConfigController.class);
+        testController = context.getBean(OptimizedConfigTestController.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * 每个线程各自的切换序号，写线程之间不共享计数器
+     */
+    @State(Scope.Thread)
+    public static class SwitchState {
+        private int next;
+
+        String nextEnvironment() {
+            return ENVIRONMENTS[next++ % ENVIRONMENTS.length];
+        }
+    }
+
+    // ---------- 读取 ----------
+
+    @Benchmark
+    public AppConfig getCurrentConfig() {
+        return configManager.getCurrentConfig();
+    }
+
+    @Benchmark
+    public String getCurrentEnvironment() {
+        return configManager.getCurrentEnvironment();
+    }
+
+    @Benchmark
+    public boolean hasTemporaryConfig() {
+        return configManager.hasTemporaryConfig();
+    }
+
+    // ---------- 切换 ----------
+
+    /**
+     * 全局切换：每次调用都切到下一个环境，包含加锁、替换属性源、刷新实例和事件入队
+     */
+    @Benchmark
+    public boolean switchGlobal(SwitchState state) {
+        return configManager.switchEnvironment(state.nextEnvironment());
+    }
+
+    /**
+     * 临时切换并清理，对应一次完整的线程级覆盖
+     */
+    @Benchmark
+    public boolean switchTemporary(SwitchState state) {
+        try {
+            return configManager.switchEnvironment(state.nextEnvironment(), ConfigScope.TEMPORARY);
+        } finally {
+            configManager.clearTemporaryConfig();
+        }
+    }
+
+    /**
+     * 从classpath读取并解析一个环境的配置文件（快照缓存未命中时的路径）
+     */
+    @Benchmark
+    public Map<String, String> loadConfigProperties(SwitchState state) {
+        return snapshotRegistry.loadConfigProperties(state.nextEnvironment());
+    }
+
+    // ---------- 响应构建 ----------
+
+    /**
+     * ConfigController.getCurrentConfig，内部由buildConfigResponse构建嵌套Map
+     */
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> buildConfigResponse() {
+        return configController.getCurrentConfig();
+    }
+
+    /**
+     * 切换到当前环境（直接返回）并对比前后配置，主要开销是两次captureCurrentConfig
+     */
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> captureCurrentConfig() {
+        return testController.switchAndCompare(configManager.getCurrentEnvironment());
+    }
+
+    // ---------- 读写并发 ----------
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(7)
+    public AppConfig readWhileSwitching() {
+        return configManager.getCurrentConfig();
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public boolean switchWhileReading(SwitchState state) {
+        return configManager.switchEnvironment(state.nextEnvironment());
+    }
+
+    @Benchmark
+    @Group("readTemporary")
+    @GroupThreads(7)
+    public AppConfig readWhileTemporarySwitching() {
+        return configManager.getCurrentConfig();
+    }
+
+    @Benchmark
+    @Group("readTemporary")
+    @GroupThreads(1)
+    public boolean temporarySwitchWhileReading(SwitchState state) {
+        try {
+            return configManager.switchEnvironment(state.nextEnvironment(), ConfigScope.TEMPORARY);
+        } finally {
+            configManager.clearTemporaryConfig();
+        }
+    }
+}
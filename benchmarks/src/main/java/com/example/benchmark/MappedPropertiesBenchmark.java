@@ -0,0 +1,106 @@
+package com.example.benchmark;
+
+import com.example.config.MappedProperties;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 超大环境文件加载基准测试
+ * 对比Properties.load与内存映射解析：只加载、加载后查找少量配置项（绑定AppConfig的典型用法）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class MappedPropertiesBenchmark {
+
+    private static final int LOOKUP_COUNT = 16;
+
+    @Param({"10000", "100000", "1000000"})
+    public int keyCount;
+
+    private Path file;
+    private String[] lookupKeys;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("config-bench-", ".properties");
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.ISO_8859_1)) {
+            writer.write("# generated by MappedPropertiesBenchmark\n");
+            for (int i = 0; i < keyCount; i++) {
+                writer.write("app.tenant.t" + (i % 1000) + ".key" + i + "=value-" + i + "-jdbc:mysql://db-" + (i % 97) + ":3306/app\n");
+            }
+        }
+
+        lookupKeys = new String[LOOKUP_COUNT];
+        int step = keyCount / LOOKUP_COUNT;
+        for (int i = 0; i < LOOKUP_COUNT; i++) {
+            int index = i * step;
+            lookupKeys[i] = "app.tenant.t" + (index % 1000) + ".key" + index;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public Properties propertiesLoad() throws IOException {
+        return loadProperties();
+    }
+
+    @Benchmark
+    public Map<String, String> mappedLoad() throws IOException {
+        return MappedProperties.load(file);
+    }
+
+    @Benchmark
+    public void propertiesLoadAndLookup(Blackhole blackhole) throws IOException {
+        Properties properties = loadProperties();
+        for (String key : lookupKeys) {
+            blackhole.consume(properties.getProperty(key));
+        }
+    }
+
+    @Benchmark
+    public void mappedLoadAndLookup(Blackhole blackhole) throws IOException {
+        MappedProperties properties = MappedProperties.load(file);
+        for (String key : lookupKeys) {
+            blackhole.consume(properties.get(key));
+        }
+    }
+
+    private Properties loadProperties() throws IOException {
+        Properties properties = new Properties();
+        try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(file))) {
+            properties.load(inputStream);
+        }
+        return properties;
+    }
+}
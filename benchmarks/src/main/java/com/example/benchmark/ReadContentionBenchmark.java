@@ -0,0 +1,121 @@
+package com.example.benchmark;
+
+import com.example.config.AppConfig;
+import com.example.config.DynamicConfigManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 读路径竞争基准测试
+ * 后台写线程持续切换全局环境，读线程并发读取当前环境/配置/属性
+ *
+ * 读线程数通过JMH的 -t 参数指定，例如：
+ * <pre>
+ * for t in 1 2 4 8 16 32 64; do java -jar target/benchmarks.jar ReadContentionBenchmark -t $t; done
+ * </pre>
+ *
+ * legacyLockedRead 模拟优化前每次读取都获取 ReentrantReadWriteLock 读锁的实现，作为对照
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReadContentionBenchmark {
+
+    private static final String[] ENVIRONMENTS = {"dev", "prod", "test"};
+
+    /**
+     * 写线程两次切换之间的间隔（微秒），0表示不停地切换
+     */
+    @Param({"0", "1000"})
+    public long switchIntervalMicros;
+
+    private ConfigurableApplicationContext context;
+    private DynamicConfigManager configManager;
+
+    private final ReentrantReadWriteLock legacyLock = new ReentrantReadWriteLock();
+    private volatile String legacyEnvironment = "dev";
+
+    private volatile boolean running;
+    private Thread writer;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start();
+        configManager = context.getBean(DynamicConfigManager.class);
+
+        running = true;
+        writer = new Thread(this::switchContinuously, "config-switch-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        running = false;
+        writer.join();
+        context.close();
+    }
+
+    private void switchContinuously() {
+        int i = 0;
+        while (running) {
+            String env = ENVIRONMENTS[i++ % ENVIRONMENTS.length];
+            configManager.switchEnvironment(env);
+
+            legacyLock.writeLock().lock();
+            try {
+                legacyEnvironment = env;
+            } finally {
+                legacyLock.writeLock().unlock();
+            }
+
+            if (switchIntervalMicros > 0) {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(switchIntervalMicros));
+            }
+        }
+    }
+
+    @Benchmark
+    public String getCurrentEnvironment() {
+        return configManager.getCurrentEnvironment();
+    }
+
+    @Benchmark
+    public AppConfig getCurrentConfig() {
+        return configManager.getCurrentConfig();
+    }
+
+    @Benchmark
+    public Map<String, String> getCurrentPropertyMap() {
+        return configManager.getCurrentPropertyMap();
+    }
+
+    @Benchmark
+    public String legacyLockedRead() {
+        legacyLock.readLock().lock();
+        try {
+            return legacyEnvironment;
+        } finally {
+            legacyLock.readLock().unlock();
+        }
+    }
+}
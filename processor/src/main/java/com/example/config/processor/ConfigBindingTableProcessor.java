@@ -0,0 +1,241 @@
+package com.example.config.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 根据标注了@ConfigBindingTable的配置类生成AppConfigBinder使用的属性表
+ *
+ * 从配置类开始按getter递归：String、int、boolean属性各生成一行，其他非JDK类型视为嵌套配置继续展开；
+ * 键 = @ConfigurationProperties的prefix + 属性名的kebab-case形式，顺序与源码中的声明顺序一致
+ * 叶子属性缺少setter或类型不受支持（ConfigStore只有INT、BOOLEAN、STRING三种槽位）时编译失败，不会静默漏掉
+ */
+@SupportedAnnotationTypes(ConfigBindingTableProcessor.ANNOTATION)
+public class ConfigBindingTableProcessor extends AbstractProcessor {
+
+    static final String ANNOTATION = "com.example.config.ConfigBindingTable";
+
+    private static final String CONFIGURATION_PROPERTIES =
+            "org.springframework.boot.context.properties.ConfigurationProperties";
+
+    /**
+     * 生成类名的后缀，AppConfig -> AppConfigBindingTable
+     */
+    private static final String SUFFIX = "BindingTable";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (TypeElement type : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(annotation))) {
+                generate(type);
+            }
+        }
+        return true;
+    }
+
+    private void generate(TypeElement type) {
+        String prefix = prefixOf(type);
+        if (prefix == null) {
+            error(type, "@ConfigBindingTable需要与@ConfigurationProperties(prefix = ...)一起使用");
+            return;
+        }
+        List<String> rows = new ArrayList<>();
+        if (!collect(type, prefix, "c", rows, new HashSet<>())) {
+            return;
+        }
+        if (rows.isEmpty()) {
+            error(type, "配置类中没有可绑定的属性");
+            return;
+        }
+
+        String packageName = ((PackageElement) processingEnv.getElementUtils().getPackageOf(type))
+                .getQualifiedName().toString();
+        String simpleName = type.getSimpleName() + SUFFIX;
+        String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter()) {
+            if (!packageName.isEmpty()) {
+                writer.write("package " + packageName + ";\n\n");
+            }
+            writer.write("import java.util.List;\n\n");
+            writer.write("/**\n * " + type.getSimpleName() + "的属性表，由ConfigBindingTableProcessor在编译时生成，不要手动修改\n */\n");
+            writer.write("@javax.annotation.processing.Generated(\"" + getClass().getName() + "\")\n");
+            writer.write("final class " + simpleName + " {\n\n");
+            writer.write("    private " + simpleName + "() {\n    }\n\n");
+            writer.write("    static List<AppConfigBinder.Property> properties() {\n");
+            writer.write("        return List.of(\n");
+            for (int i = 0; i < rows.size(); i++) {
+                writer.write("            " + rows.get(i) + (i < rows.size() - 1 ? ",\n" : "\n"));
+            }
+            writer.write("        );\n    }\n}\n");
+        } catch (IOException e) {
+            error(type, "生成属性表失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 展开一个配置类的全部属性
+     *
+     * @param path 从根配置对象取到当前对象的表达式，如 c.getDatabase().getPool()
+     * @return 是否没有错误
+     */
+    private boolean collect(TypeElement type, String prefix, String path, List<String> rows, Set<String> visiting) {
+        String typeName = type.getQualifiedName().toString();
+        if (!visiting.add(typeName)) {
+            error(type, "配置类之间存在循环引用: " + typeName);
+            return false;
+        }
+        List<ExecutableElement> methods = ElementFilter.methodsIn(type.getEnclosedElements());
+        boolean ok = true;
+        for (ExecutableElement getter : methods) {
+            String property = propertyName(getter);
+            if (property == null) {
+                continue;
+            }
+            String key = prefix + "." + kebabCase(property);
+            String getterCall = path + "." + getter.getSimpleName() + "()";
+            TypeMirror returnType = getter.getReturnType();
+            String kind = leafKind(returnType);
+            if (kind == null) {
+                TypeElement nested = nestedConfig(returnType);
+                if (nested == null) {
+                    error(getter, "不支持的配置类型 " + returnType + "（" + key + "），只支持String、int、boolean和嵌套配置类");
+                    ok = false;
+                } else {
+                    ok &= collect(nested, key, getterCall, rows, visiting);
+                }
+                continue;
+            }
+            String setterName = "set" + Character.toUpperCase(property.charAt(0)) + property.substring(1);
+            if (!hasSetter(methods, setterName, returnType)) {
+                error(getter, "配置项 " + key + " 缺少setter: " + setterName);
+                ok = false;
+                continue;
+            }
+            rows.add("AppConfigBinder." + kind + "Property(\"" + key + "\", c -> " + getterCall + ", (c, v) -> "
+                    + path + "." + setterName + "(v))");
+        }
+        visiting.remove(typeName);
+        return ok;
+    }
+
+    /**
+     * getter对应的属性名，不是public的实例getter时返回null
+     */
+    private static String propertyName(ExecutableElement method) {
+        Set<Modifier> modifiers = method.getModifiers();
+        if (!modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.STATIC)
+                || !method.getParameters().isEmpty()) {
+            return null;
+        }
+        String name = method.getSimpleName().toString();
+        String property;
+        if (name.startsWith("get") && name.length() > 3) {
+            property = name.substring(3);
+        } else if (name.startsWith("is") && name.length() > 2 && method.getReturnType().getKind() == TypeKind.BOOLEAN) {
+            property = name.substring(2);
+        } else {
+            return null;
+        }
+        return Character.toLowerCase(property.charAt(0)) + property.substring(1);
+    }
+
+    private static String leafKind(TypeMirror type) {
+        if (type.getKind() == TypeKind.INT) {
+            return "int";
+        }
+        if (type.getKind() == TypeKind.BOOLEAN) {
+            return "boolean";
+        }
+        return type.toString().equals("java.lang.String") ? "string" : null;
+    }
+
+    /**
+     * 嵌套配置类：非JDK的类类型
+     */
+    private static TypeElement nestedConfig(TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+        String name = element.getQualifiedName().toString();
+        return name.startsWith("java.") || name.startsWith("javax.") ? null : element;
+    }
+
+    private boolean hasSetter(List<ExecutableElement> methods, String setterName, TypeMirror type) {
+        for (ExecutableElement method : methods) {
+            if (method.getSimpleName().contentEquals(setterName) && method.getModifiers().contains(Modifier.PUBLIC)
+                    && method.getParameters().size() == 1
+                    && processingEnv.getTypeUtils().isSameType(method.getParameters().get(0).asType(), type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 与Spring的规范写法一致：maxSize -> max-size
+     */
+    private static String kebabCase(String name) {
+        StringBuilder kebab = new StringBuilder(name.length() + 4);
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isUpperCase(c)) {
+                if (i > 0) {
+                    kebab.append('-');
+                }
+                kebab.append(Character.toLowerCase(c));
+            } else {
+                kebab.append(c);
+            }
+        }
+        return kebab.toString();
+    }
+
+    private static String prefixOf(TypeElement type) {
+        for (AnnotationMirror mirror : type.getAnnotationMirrors()) {
+            if (!((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName()
+                    .contentEquals(CONFIGURATION_PROPERTIES)) {
+                continue;
+            }
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                    : mirror.getElementValues().entrySet()) {
+                String name = entry.getKey().getSimpleName().toString();
+                String value = entry.getValue().getValue().toString();
+                if ((name.equals("prefix") || name.equals("value")) && !value.isEmpty()) {
+                    return value;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -1,6 +1,7 @@
 package com.example;
 
 import com.example.config.AppConfig;
+import com.example.config.DynamicConfigManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,6 +22,9 @@ public class Application implements CommandLineRunner {
     @Autowired
     private AppConfig appConfig;
 
+    @Autowired
+    private DynamicConfigManager configManager;
+
     public static void main(String[] args) {
         SpringApplication.run(Application.class, args);
     }
@@ -32,7 +36,7 @@ public class Application implements CommandLineRunner {
         logger.info("访问 http://localhost:8080/api/config/current 查看当前配置");
         logger.info("访问 http://localhost:8080/api/config/environment 查看当前环境");
         logger.info("使用 POST http://localhost:8080/api/config/environment/{env} 切换环境");
-        logger.info("支持的环境: dev, prod, test");
+        logger.info("支持的环境: {}", configManager.getSupportedEnvironments());
         logger.info("=======================================");
     }
 }
@@ -6,11 +6,13 @@ import org.springframework.stereotype.Component;
 /**
  * 应用配置实体类
  * 使用@ConfigurationProperties自动绑定配置属性
- * 支持运行时动态更新配置实例
+ * 支持运行时动态更新配置实例；ConfigSnapshot中的实例已冻结，setter会抛出UnsupportedOperationException
+ * AppConfigBinder的属性表在编译时根据本类的getter/setter生成
  */
 @Component
 @ConfigurationProperties(prefix = "app")
-public class AppConfig {
+@ConfigBindingTable
+public class AppConfig extends FreezableConfig {
 
     private DatabaseConfig database = new DatabaseConfig();
     private RedisConfig redis = new RedisConfig();
@@ -24,6 +26,7 @@ public class AppConfig {
     }
 
     public void setDatabase(DatabaseConfig database) {
+        checkMutable();
         this.database = database;
     }
 
@@ -32,6 +35,7 @@ public class AppConfig {
     }
 
     public void setRedis(RedisConfig redis) {
+        checkMutable();
         this.redis = redis;
     }
 
@@ -40,6 +44,7 @@ public class AppConfig {
     }
 
     public void setApi(ApiConfig api) {
+        checkMutable();
         this.api = api;
     }
 
@@ -48,6 +53,7 @@ public class AppConfig {
     }
 
     public void setFeature(FeatureConfig feature) {
+        checkMutable();
         this.feature = feature;
     }
 
@@ -56,13 +62,24 @@ public class AppConfig {
     }
 
     public void setNotification(NotificationConfig notification) {
+        checkMutable();
         this.notification = notification;
     }
 
+    @Override
+    void freeze() {
+        super.freeze();
+        database.freeze();
+        redis.freeze();
+        api.freeze();
+        feature.freeze();
+        notification.freeze();
+    }
+
     /**
      * 数据库配置
      */
-    public static class DatabaseConfig {
+    public static class DatabaseConfig extends FreezableConfig {
         private String url;
         private String username;
         private String password;
@@ -74,6 +91,7 @@ public class AppConfig {
         }
 
         public void setUrl(String url) {
+            checkMutable();
             this.url = url;
         }
 
@@ -82,6 +100,7 @@ public class AppConfig {
         }
 
         public void setUsername(String username) {
+            checkMutable();
             this.username = username;
         }
 
@@ -90,6 +109,7 @@ public class AppConfig {
         }
 
         public void setPassword(String password) {
+            checkMutable();
             this.password = password;
         }
 
@@ -98,10 +118,17 @@ public class AppConfig {
         }
 
         public void setPool(PoolConfig pool) {
+            checkMutable();
             this.pool = pool;
         }
 
-        public static class PoolConfig {
+        @Override
+        void freeze() {
+            super.freeze();
+            pool.freeze();
+        }
+
+        public static class PoolConfig extends FreezableConfig {
             private int maxSize;
 
             public int getMaxSize() {
@@ -109,6 +136,7 @@ public class AppConfig {
             }
 
             public void setMaxSize(int maxSize) {
+                checkMutable();
                 this.maxSize = maxSize;
             }
         }
@@ -117,7 +145,7 @@ public class AppConfig {
     /**
      * Redis配置
      */
-    public static class RedisConfig {
+    public static class RedisConfig extends FreezableConfig {
         private String host;
         private int port;
         private int database;
@@ -128,6 +156,7 @@ public class AppConfig {
         }
 
         public void setHost(String host) {
+            checkMutable();
             this.host = host;
         }
 
@@ -136,6 +165,7 @@ public class AppConfig {
         }
 
         public void setPort(int port) {
+            checkMutable();
             this.port = port;
         }
 
@@ -144,6 +174,7 @@ public class AppConfig {
         }
 
         public void setDatabase(int database) {
+            checkMutable();
             this.database = database;
         }
     }
@@ -151,7 +182,7 @@ public class AppConfig {
     /**
      * API配置
      */
-    public static class ApiConfig {
+    public static class ApiConfig extends FreezableConfig {
         private String baseUrl;
         private int timeout;
         private int retryCount;
@@ -162,6 +193,7 @@ public class AppConfig {
         }
 
         public void setBaseUrl(String baseUrl) {
+            checkMutable();
             this.baseUrl = baseUrl;
         }
 
@@ -170,6 +202,7 @@ public class AppConfig {
         }
 
         public void setTimeout(int timeout) {
+            checkMutable();
             this.timeout = timeout;
         }
 
@@ -178,6 +211,7 @@ public class AppConfig {
         }
 
         public void setRetryCount(int retryCount) {
+            checkMutable();
             this.retryCount = retryCount;
         }
     }
@@ -185,7 +219,7 @@ public class AppConfig {
     /**
      * 功能开关配置
      */
-    public static class FeatureConfig {
+    public static class FeatureConfig extends FreezableConfig {
         private boolean enableCache;
         private boolean enableDebug;
         private boolean enableMonitoring;
@@ -196,6 +230,7 @@ public class AppConfig {
         }
 
         public void setEnableCache(boolean enableCache) {
+            checkMutable();
             this.enableCache = enableCache;
         }
 
@@ -204,6 +239,7 @@ public class AppConfig {
         }
 
         public void setEnableDebug(boolean enableDebug) {
+            checkMutable();
             this.enableDebug = enableDebug;
         }
 
@@ -212,6 +248,7 @@ public class AppConfig {
         }
 
         public void setEnableMonitoring(boolean enableMonitoring) {
+            checkMutable();
             this.enableMonitoring = enableMonitoring;
         }
     }
@@ -219,7 +256,7 @@ public class AppConfig {
     /**
      * 通知配置
      */
-    public static class NotificationConfig {
+    public static class NotificationConfig extends FreezableConfig {
         private EmailConfig email = new EmailConfig();
         private SmsConfig sms = new SmsConfig();
 
@@ -228,6 +265,7 @@ public class AppConfig {
         }
 
         public void setEmail(EmailConfig email) {
+            checkMutable();
             this.email = email;
         }
 
@@ -236,10 +274,18 @@ public class AppConfig {
         }
 
         public void setSms(SmsConfig sms) {
+            checkMutable();
             this.sms = sms;
         }
 
-        public static class EmailConfig {
+        @Override
+        void freeze() {
+            super.freeze();
+            email.freeze();
+            sms.freeze();
+        }
+
+        public static class EmailConfig extends FreezableConfig {
             private boolean enabled;
 
             public boolean isEnabled() {
@@ -247,11 +293,12 @@ public class AppConfig {
             }
 
             public void setEnabled(boolean enabled) {
+                checkMutable();
                 this.enabled = enabled;
             }
         }
 
-        public static class SmsConfig {
+        public static class SmsConfig extends FreezableConfig {
             private boolean enabled;
 
             public boolean isEnabled() {
@@ -259,6 +306,7 @@ public class AppConfig {
             }
 
             public void setEnabled(boolean enabled) {
+                checkMutable();
                 this.enabled = enabled;
             }
         }
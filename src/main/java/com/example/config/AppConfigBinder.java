@@ -0,0 +1,408 @@
+package com.example.config;
+
+import org.springframework.boot.context.properties.bind.PlaceholdersResolver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * AppConfig绑定器
+ * 用一张静态的属性表描述AppConfig的全部配置项，绑定和复制都基于方法引用完成，不经过Spring Binder的反射；
+ * 键名按Spring宽松绑定的规则匹配（忽略大小写、'-'和'_'），maxSize、max_size、max-size 都对应 max-size
+ *
+ * 属性表（AppConfigBindingTable）由processor模块的注解处理器在编译时根据AppConfig生成，
+ * 新增配置字段时只需在AppConfig中添加getter/setter，绑定、复制和ConfigStore槽位会同时生效；
+ * AppConfigBinderTest会对照AppConfig的全部属性和Spring Binder检查是否有遗漏
+ */
+public final class AppConfigBinder {
+
+    /**
+     * 配置项属性表，键使用规范的kebab-case形式，由ConfigBindingTableProcessor根据AppConfig生成
+     */
+    private static final List<Property> PROPERTIES = AppConfigBindingTable.properties();
+
+    private static final List<String> KEYS;
+
+    /**
+     * 宽松形式的键 -> 属性表下标
+     */
+    private static final Map<String, Integer> INDEX_BY_UNIFORM_KEY;
+
+    static {
+        List<String> keys = new ArrayList<>(PROPERTIES.size());
+        Map<String, Integer> indexByUniformKey = new HashMap<>();
+        for (int i = 0; i < PROPERTIES.size(); i++) {
+            keys.add(PROPERTIES.get(i).getKey());
+            indexByUniformKey.put(uniformKey(PROPERTIES.get(i).getKey()), i);
+        }
+        KEYS = Collections.unmodifiableList(keys);
+        INDEX_BY_UNIFORM_KEY = Collections.unmodifiableMap(indexByUniformKey);
+    }
+
+    private AppConfigBinder() {
+    }
+
+    /**
+     * 将属性绑定到新的AppConfig实例
+     */
+    public static AppConfig bind(Map<?, ?> properties) {
+        return bind(properties, null);
+    }
+
+    /**
+     * 将属性绑定到新的AppConfig实例
+     *
+     * @param properties 配置属性
+     * @param placeholdersResolver 占位符解析器，为null时不解析占位符
+     */
+    public static AppConfig bind(Map<?, ?> properties, PlaceholdersResolver placeholdersResolver) {
+        return bind(properties, placeholdersResolver, null);
+    }
+
+    /**
+     * 将属性绑定到新的AppConfig实例
+     *
+     * @param properties 配置属性
+     * @param placeholdersResolver 占位符解析器，为null时不解析占位符
+     * @param fallback properties中不存在的配置项从这里查找（如application.properties、系统属性、环境变量），可以为null
+     */
+    public static AppConfig bind(Map<?, ?> properties, PlaceholdersResolver placeholdersResolver,
+                                 Function<String, String> fallback) {
+        Object[] values = new Object[PROPERTIES.size()];
+        int found = 0;
+        for (int i = 0; i < values.length; i++) {
+            values[i] = properties.get(PROPERTIES.get(i).getKey());
+            if (values[i] != null) {
+                found++;
+            }
+        }
+        // 规范键不全且还有其他键时，按宽松名称再找一遍；同一配置项规范写法优先
+        if (found < values.length && properties.size() > found) {
+            for (Map.Entry<?, ?> entry : properties.entrySet()) {
+                Integer index = INDEX_BY_UNIFORM_KEY.get(uniformKey(entry.getKey().toString()));
+                if (index != null && values[index] == null) {
+                    values[index] = entry.getValue();
+                }
+            }
+        }
+
+        AppConfig config = new AppConfig();
+        for (int i = 0; i < values.length; i++) {
+            Property property = PROPERTIES.get(i);
+            Object value = values[i];
+            if (value == null && fallback != null) {
+                value = fallback.apply(property.getKey());
+            }
+            if (value == null) {
+                continue;
+            }
+            String text = value.toString();
+            if (placeholdersResolver != null && text.contains("${")) {
+                Object resolved = placeholdersResolver.resolvePlaceholders(text);
+                text = resolved != null ? resolved.toString() : null;
+            }
+            if (text != null) {
+                property.apply(config, text);
+            }
+        }
+        return config;
+    }
+
+    /**
+     * 将source的全部配置项复制到target
+     */
+    public static void copy(AppConfig source, AppConfig target) {
+        for (Property property : PROPERTIES) {
+            property.copy(source, target);
+        }
+    }
+
+    /**
+     * 只复制指定配置项，未在keys中的配置项保持不变
+     *
+     * @return 实际复制的配置项数量
+     */
+    public static int copy(AppConfig source, AppConfig target, Set<String> keys) {
+        boolean[] selected = new boolean[PROPERTIES.size()];
+        for (String key : keys) {
+            Integer index = indexOf(key);
+            if (index != null) {
+                selected[index] = true;
+            }
+        }
+        int copied = 0;
+        for (int i = 0; i < selected.length; i++) {
+            if (selected[i]) {
+                PROPERTIES.get(i).copy(source, target);
+                copied++;
+            }
+        }
+        return copied;
+    }
+
+    /**
+     * 获取配置项的规范键
+     *
+     * @param key 任意宽松写法的键，如 app.database.pool.maxSize
+     * @return 规范的kebab-case键，不是AppConfig的配置项时返回null
+     */
+    public static String canonicalKey(String key) {
+        Integer index = indexOf(key);
+        return index != null ? PROPERTIES.get(index).getKey() : null;
+    }
+
+    private static Integer indexOf(String key) {
+        return key != null ? INDEX_BY_UNIFORM_KEY.get(uniformKey(key)) : null;
+    }
+
+    /**
+     * 宽松名称的统一形式：转为小写并去掉'-'和'_'
+     */
+    static String uniformKey(String key) {
+        StringBuilder uniform = new StringBuilder(key.length());
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c != '-' && c != '_') {
+                uniform.append(Character.toLowerCase(c));
+            }
+        }
+        return uniform.toString();
+    }
+
+    /**
+     * 将配置实例的全部配置项写入扁平存储
+     */
+    static void store(AppConfig source, ConfigStore.Builder builder) {
+        for (Property property : PROPERTIES) {
+            property.store(source, builder);
+        }
+    }
+
+    /**
+     * 获取全部配置项的键
+     */
+    public static List<String> keys() {
+        return KEYS;
+    }
+
+    /**
+     * 全部配置项的键及其在ConfigStore中的槽位类型，按属性表顺序
+     */
+    static Map<String, ConfigSlot.Type> slotTypes() {
+        Map<String, ConfigSlot.Type> types = new LinkedHashMap<>();
+        for (Property property : PROPERTIES) {
+            types.put(property.getKey(), property.getSlotType());
+        }
+        return types;
+    }
+
+    static Property stringProperty(String key, Function<AppConfig, String> getter,
+                                   BiConsumer<AppConfig, String> setter) {
+        return new StringProperty(key, getter, setter);
+    }
+
+    static Property intProperty(String key, ToIntFunction<AppConfig> getter,
+                                ObjIntConsumer<AppConfig> setter) {
+        return new IntProperty(key, getter, setter);
+    }
+
+    static Property booleanProperty(String key, Predicate<AppConfig> getter,
+                                    BooleanSetter setter) {
+        return new BooleanProperty(key, getter, setter);
+    }
+
+    /**
+     * 整数转换，与Spring的数字转换规则保持一致（支持十六进制）
+     */
+    static int parseInt(String key, String text) {
+        String trimmed = text.trim();
+        try {
+            String digits = trimmed.startsWith("-") || trimmed.startsWith("+") ? trimmed.substring(1) : trimmed;
+            if (digits.startsWith("0x") || digits.startsWith("0X") || digits.startsWith("#")) {
+                return Integer.decode(trimmed);
+            }
+            return Integer.parseInt(trimmed);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("配置项 " + key + " 不是有效的整数: " + text, e);
+        }
+    }
+
+    /**
+     * 长整数转换，规则与parseInt相同
+     */
+    static long parseLong(String key, String text) {
+        String trimmed = text.trim();
+        try {
+            String digits = trimmed.startsWith("-") || trimmed.startsWith("+") ? trimmed.substring(1) : trimmed;
+            if (digits.startsWith("0x") || digits.startsWith("0X") || digits.startsWith("#")) {
+                return Long.decode(trimmed);
+            }
+            return Long.parseLong(trimmed);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("配置项 " + key + " 不是有效的长整数: " + text, e);
+        }
+    }
+
+    /**
+     * 布尔转换，与Spring的StringToBooleanConverter规则保持一致
+     */
+    static boolean parseBoolean(String key, String text) {
+        switch (text.trim().toLowerCase()) {
+            case "true":
+            case "on":
+            case "yes":
+            case "1":
+                return true;
+            case "false":
+            case "off":
+            case "no":
+            case "0":
+                return false;
+            default:
+                throw new IllegalArgumentException("配置项 " + key + " 不是有效的布尔值: " + text);
+        }
+    }
+
+    /**
+     * 布尔类型的setter
+     */
+    @FunctionalInterface
+    interface BooleanSetter {
+        void set(AppConfig config, boolean value);
+    }
+
+    /**
+     * 单个配置项的绑定描述
+     */
+    abstract static class Property {
+
+        private final String key;
+
+        Property(String key) {
+            this.key = key;
+        }
+
+        String getKey() {
+            return key;
+        }
+
+        abstract ConfigSlot.Type getSlotType();
+
+        abstract void apply(AppConfig target, String text);
+
+        abstract void copy(AppConfig source, AppConfig target);
+
+        abstract void store(AppConfig source, ConfigStore.Builder builder);
+    }
+
+    private static final class StringProperty extends Property {
+
+        private final Function<AppConfig, String> getter;
+        private final BiConsumer<AppConfig, String> setter;
+
+        StringProperty(String key, Function<AppConfig, String> getter, BiConsumer<AppConfig, String> setter) {
+            super(key);
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        @Override
+        ConfigSlot.Type getSlotType() {
+            return ConfigSlot.Type.STRING;
+        }
+
+        @Override
+        void apply(AppConfig target, String text) {
+            setter.accept(target, text);
+        }
+
+        @Override
+        void copy(AppConfig source, AppConfig target) {
+            setter.accept(target, getter.apply(source));
+        }
+
+        @Override
+        void store(AppConfig source, ConfigStore.Builder builder) {
+            builder.setString(getKey(), getter.apply(source));
+        }
+    }
+
+    private static final class IntProperty extends Property {
+
+        private final ToIntFunction<AppConfig> getter;
+        private final ObjIntConsumer<AppConfig> setter;
+
+        IntProperty(String key, ToIntFunction<AppConfig> getter, ObjIntConsumer<AppConfig> setter) {
+            super(key);
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        @Override
+        ConfigSlot.Type getSlotType() {
+            return ConfigSlot.Type.INT;
+        }
+
+        @Override
+        void apply(AppConfig target, String text) {
+            // 空值与Spring一致：不覆盖默认值
+            if (!text.trim().isEmpty()) {
+                setter.accept(target, parseInt(getKey(), text));
+            }
+        }
+
+        @Override
+        void copy(AppConfig source, AppConfig target) {
+            setter.accept(target, getter.applyAsInt(source));
+        }
+
+        @Override
+        void store(AppConfig source, ConfigStore.Builder builder) {
+            builder.setInt(getKey(), getter.applyAsInt(source));
+        }
+    }
+
+    private static final class BooleanProperty extends Property {
+
+        private final Predicate<AppConfig> getter;
+        private final BooleanSetter setter;
+
+        BooleanProperty(String key, Predicate<AppConfig> getter, BooleanSetter setter) {
+            super(key);
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        @Override
+        ConfigSlot.Type getSlotType() {
+            return ConfigSlot.Type.BOOLEAN;
+        }
+
+        @Override
+        void apply(AppConfig target, String text) {
+            if (!text.trim().isEmpty()) {
+                setter.set(target, parseBoolean(getKey(), text));
+            }
+        }
+
+        @Override
+        void copy(AppConfig source, AppConfig target) {
+            setter.set(target, getter.test(source));
+        }
+
+        @Override
+        void store(AppConfig source, ConfigStore.Builder builder) {
+            builder.setBoolean(getKey(), getter.test(source));
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标记需要在编译时生成属性表的配置类
+ * processor模块中的ConfigBindingTableProcessor按getter/setter生成 &lt;类名&gt;BindingTable，供AppConfigBinder使用
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface ConfigBindingTable {
+}
@@ -0,0 +1,250 @@
+package com.example.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 配置上下文传播
+ * 临时配置和请求级配置保存在ThreadLocal中，提交到线程池、CompletableFuture的任务默认看不到；
+ * 这里在提交时捕获调用方的有效快照，任务执行期间绑定到执行线程，结束后恢复执行线程原来的临时和请求级配置
+ *
+ * 绑定方式与ScopedValue一致：快照不可变，只在run/call的执行范围内有效，嵌套绑定退出时逐层恢复，
+ * 结束后不在线程上留下任何条目，大量短生命周期线程不会累积ThreadLocal数据；
+ * 调用方没有临时/请求级配置时不捕获任何内容，包装直接返回原任务，没有额外开销
+ */
+@Component
+public class ConfigContext {
+
+    private final DynamicConfigManager configManager;
+
+    @Autowired
+    public ConfigContext(DynamicConfigManager configManager) {
+        this.configManager = configManager;
+    }
+
+    /**
+     * 捕获当前线程的临时/请求级配置快照
+     *
+     * @return 快照，当前线程使用全局配置时返回null
+     */
+    public ConfigSnapshot capture() {
+        return configManager.currentOverride();
+    }
+
+    /**
+     * 在snapshot绑定期间执行任务，snapshot为null时任务读取全局配置
+     * 执行线程原有的请求级配置在任务期间换下（否则它会优先于传入的快照），
+     * 任务内部的临时/请求级切换在返回后一并撤销
+     */
+    public void run(ConfigSnapshot snapshot, Runnable task) {
+        Binding binding = bind(snapshot);
+        try {
+            task.run();
+        } finally {
+            binding.restore();
+        }
+    }
+
+    /**
+     * 在snapshot绑定期间执行任务并返回结果
+     */
+    public <T> T call(ConfigSnapshot snapshot, Callable<T> task) throws Exception {
+        Binding binding = bind(snapshot);
+        try {
+            return task.call();
+        } finally {
+            binding.restore();
+        }
+    }
+
+    /**
+     * 包装任务，执行时使用包装时当前线程的配置
+     */
+    public Runnable wrap(Runnable task) {
+        ConfigSnapshot snapshot = capture();
+        if (snapshot == null) {
+            return task;
+        }
+        return () -> run(snapshot, task);
+    }
+
+    public <T> Callable<T> wrap(Callable<T> task) {
+        ConfigSnapshot snapshot = capture();
+        if (snapshot == null) {
+            return task;
+        }
+        return () -> call(snapshot, task);
+    }
+
+    /**
+     * 包装Supplier，用于CompletableFuture.supplyAsync
+     */
+    public <T> Supplier<T> wrapSupplier(Supplier<T> supplier) {
+        ConfigSnapshot snapshot = capture();
+        if (snapshot == null) {
+            return supplier;
+        }
+        return () -> {
+            Binding binding = bind(snapshot);
+            try {
+                return supplier.get();
+            } finally {
+                binding.restore();
+            }
+        };
+    }
+
+    /**
+     * 把snapshot绑定到当前线程：放入临时配置，同时换下请求级配置，保证snapshot是线程上生效的配置
+     */
+    private Binding bind(ConfigSnapshot snapshot) {
+        ConfigSnapshot previousRequest = configManager.swapRequestConfig(null);
+        ConfigSnapshot previousTemporary = configManager.swapTemporaryConfig(snapshot);
+        return new Binding(previousRequest, previousTemporary);
+    }
+
+    /**
+     * 绑定前线程上的两个配置槽，restore时原样换回
+     */
+    private final class Binding {
+
+        private final ConfigSnapshot previousRequest;
+        private final ConfigSnapshot previousTemporary;
+
+        Binding(ConfigSnapshot previousRequest, ConfigSnapshot previousTemporary) {
+            this.previousRequest = previousRequest;
+            this.previousTemporary = previousTemporary;
+        }
+
+        void restore() {
+            configManager.swapTemporaryConfig(previousTemporary);
+            configManager.swapRequestConfig(previousRequest);
+        }
+    }
+
+    /**
+     * 包装Executor，提交的每个任务都在提交线程的配置下执行
+     */
+    public Executor wrap(Executor executor) {
+        return new ContextExecutor(executor);
+    }
+
+    /**
+     * 包装ExecutorService，submit/invokeAll/invokeAny提交的任务都在提交线程的配置下执行
+     */
+    public ExecutorService wrap(ExecutorService executorService) {
+        return new ContextExecutorService(executorService);
+    }
+
+    private class ContextExecutor implements Executor {
+
+        private final Executor delegate;
+
+        ContextExecutor(Executor delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            delegate.execute(wrap(command));
+        }
+    }
+
+    private class ContextExecutorService implements ExecutorService {
+
+        private final ExecutorService delegate;
+
+        ContextExecutorService(ExecutorService delegate) {
+            this.delegate = delegate;
+        }
+
+        private <T> List<Callable<T>> wrapAll(Collection<? extends Callable<T>> tasks) {
+            ConfigSnapshot snapshot = capture();
+            List<Callable<T>> wrapped = new ArrayList<>(tasks.size());
+            for (Callable<T> task : tasks) {
+                wrapped.add(snapshot == null ? task : () -> call(snapshot, task));
+            }
+            return wrapped;
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            delegate.execute(wrap(command));
+        }
+
+        @Override
+        public <T> Future<T> submit(Callable<T> task) {
+            return delegate.submit(wrap(task));
+        }
+
+        @Override
+        public <T> Future<T> submit(Runnable task, T result) {
+            return delegate.submit(wrap(task), result);
+        }
+
+        @Override
+        public Future<?> submit(Runnable task) {
+            return delegate.submit(wrap(task));
+        }
+
+        @Override
+        public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException {
+            return delegate.invokeAll(wrapAll(tasks));
+        }
+
+        @Override
+        public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+                throws InterruptedException {
+            return delegate.invokeAll(wrapAll(tasks), timeout, unit);
+        }
+
+        @Override
+        public <T> T invokeAny(Collection<? extends Callable<T>> tasks)
+                throws InterruptedException, ExecutionException {
+            return delegate.invokeAny(wrapAll(tasks));
+        }
+
+        @Override
+        public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+                throws InterruptedException, ExecutionException, TimeoutException {
+            return delegate.invokeAny(wrapAll(tasks), timeout, unit);
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return delegate.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+    }
+}
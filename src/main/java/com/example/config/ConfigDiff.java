@@ -0,0 +1,112 @@
+package com.example.config;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 配置差异计算
+ * 按键比较两组配置属性，得出新增、删除或值发生变化的配置项；
+ * AppConfig的配置项按绑定后的值比较，${...}引用的配置项变化时也能发现
+ */
+public final class ConfigDiff {
+
+    private static final String ROOT_PREFIX = "app.";
+
+    private ConfigDiff() {
+    }
+
+    /**
+     * 计算两组属性之间发生变化的键
+     */
+    public static Set<String> changedKeys(Map<String, String> oldProperties, Map<String, String> newProperties) {
+        if (oldProperties == newProperties) {
+            return Collections.emptySet();
+        }
+
+        Set<String> changed = new HashSet<>();
+        for (Map.Entry<String, String> entry : newProperties.entrySet()) {
+            if (!entry.getValue().equals(oldProperties.get(entry.getKey()))) {
+                changed.add(entry.getKey());
+            }
+        }
+        for (String key : oldProperties.keySet()) {
+            if (!newProperties.containsKey(key)) {
+                changed.add(key);
+            }
+        }
+        return Collections.unmodifiableSet(changed);
+    }
+
+    /**
+     * 计算两个快照之间发生变化的键
+     * AppConfig的配置项比较ConfigStore中解析占位符、类型转换之后的值，其余配置项比较原始值
+     */
+    public static Set<String> changedKeys(Map<String, String> oldProperties, ConfigStore oldStore,
+                                          Map<String, String> newProperties, ConfigStore newStore) {
+        Set<String> changed = new HashSet<>(changedKeys(oldStore, newStore));
+        for (String key : changedKeys(oldProperties, newProperties)) {
+            // AppConfig配置项（包括宽松写法）以绑定结果为准
+            if (AppConfigBinder.canonicalKey(key) == null) {
+                changed.add(key);
+            }
+        }
+        return Collections.unmodifiableSet(changed);
+    }
+
+    /**
+     * 计算两份绑定结果之间值发生变化的AppConfig配置项（规范键）
+     */
+    public static Set<String> changedKeys(ConfigStore oldStore, ConfigStore newStore) {
+        if (oldStore == newStore) {
+            return Collections.emptySet();
+        }
+
+        Set<String> changed = new LinkedHashSet<>();
+        for (ConfigSlot slot : ConfigStoreLayout.slots()) {
+            boolean same;
+            switch (slot.getType()) {
+                case INT:
+                    same = oldStore.getInt(slot) == newStore.getInt(slot);
+                    break;
+                case BOOLEAN:
+                    same = oldStore.getBoolean(slot) == newStore.getBoolean(slot);
+                    break;
+                default:
+                    same = Objects.equals(oldStore.getString(slot), newStore.getString(slot));
+            }
+            if (!same) {
+                changed.add(slot.getKey());
+            }
+        }
+        return Collections.unmodifiableSet(changed);
+    }
+
+    /**
+     * 计算发生变化的配置分组，例如 app.redis.host -> redis
+     */
+    public static Set<String> sections(Set<String> keys) {
+        Set<String> sections = new LinkedHashSet<>();
+        for (String key : keys) {
+            String section = sectionOf(key);
+            if (section != null) {
+                sections.add(section);
+            }
+        }
+        return Collections.unmodifiableSet(sections);
+    }
+
+    /**
+     * 获取配置项所属的分组，不属于app前缀时返回null
+     */
+    public static String sectionOf(String key) {
+        if (!key.startsWith(ROOT_PREFIX)) {
+            return null;
+        }
+        int end = key.indexOf('.', ROOT_PREFIX.length());
+        return end > 0 ? key.substring(ROOT_PREFIX.length(), end) : key.substring(ROOT_PREFIX.length());
+    }
+}
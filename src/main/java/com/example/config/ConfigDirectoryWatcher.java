@@ -0,0 +1,173 @@
+package com.example.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 外部配置目录监听器
+ * 使用WatchService监听config-*.properties的变化，去抖后只重新加载发生变化的环境文件；
+ * 只有已缓存的环境和当前全局环境会被重新解析，其他环境只更新索引；解析在监听线程上完成，不阻塞请求线程
+ */
+@Component
+@ConditionalOnProperty(prefix = "dynamic-config.watch", name = "enabled", havingValue = "true")
+public class ConfigDirectoryWatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfigDirectoryWatcher.class);
+
+    private final DynamicConfigManager configManager;
+    private final ConfigEnvironmentIndex environmentIndex;
+    private final long debounceNanos;
+
+    // 等待重新加载的环境 -> 截止时间，只在监听线程中访问
+    private final Map<String, Long> pendingReloads = new HashMap<>();
+
+    private WatchService watchService;
+    private Thread watcherThread;
+    private volatile boolean running;
+
+    @Autowired
+    public ConfigDirectoryWatcher(DynamicConfigManager configManager,
+                                  ConfigEnvironmentIndex environmentIndex,
+                                  DynamicConfigProperties configProperties) {
+        this.configManager = configManager;
+        this.environmentIndex = environmentIndex;
+        this.debounceNanos = TimeUnit.MILLISECONDS.toNanos(configProperties.getWatch().getDebounceMillis());
+    }
+
+    /**
+     * 启动目录监听
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        Path directory = environmentIndex.getConfigDirectory();
+        if (directory == null) {
+            logger.warn("未配置 dynamic-config.config-directory，配置文件监听未启动");
+            return;
+        }
+
+        watchService = directory.getFileSystem().newWatchService();
+        directory.register(watchService,
+                           StandardWatchEventKinds.ENTRY_CREATE,
+                           StandardWatchEventKinds.ENTRY_MODIFY,
+                           StandardWatchEventKinds.ENTRY_DELETE);
+
+        running = true;
+        watcherThread = new Thread(this::watchLoop, "config-directory-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+        logger.info("开始监听外部配置目录: {}", directory);
+    }
+
+    /**
+     * 停止目录监听
+     */
+    @PreDestroy
+    public void stop() throws IOException {
+        running = false;
+        if (watchService != null) {
+            watchService.close();
+        }
+        if (watcherThread != null) {
+            watcherThread.interrupt();
+        }
+    }
+
+    private void watchLoop() {
+        while (running) {
+            try {
+                WatchKey key = pendingReloads.isEmpty()
+                        ? watchService.take()
+                        : watchService.poll(nextDelayNanos(), TimeUnit.NANOSECONDS);
+
+                if (key != null) {
+                    collectChanges(key);
+                    if (!key.reset()) {
+                        logger.error("外部配置目录已不可访问，停止监听");
+                        return;
+                    }
+                }
+                reloadDueEnvironments();
+
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            } catch (Exception e) {
+                logger.error("处理配置文件变化失败", e);
+            }
+        }
+    }
+
+    /**
+     * 记录发生变化的环境，同一文件的连续写入会推迟截止时间
+     */
+    private void collectChanges(WatchKey key) {
+        long deadline = System.nanoTime() + debounceNanos;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                // 事件丢失时重新扫描目录，并重新加载当前环境
+                logger.warn("配置目录事件溢出，重新扫描目录");
+                environmentIndex.refresh();
+                String currentEnvironment = configManager.getCurrentEnvironment();
+                if (currentEnvironment != null) {
+                    pendingReloads.put(currentEnvironment, deadline);
+                }
+                continue;
+            }
+
+            Path fileName = (Path) event.context();
+            String env = ConfigEnvironmentIndex.environmentOf(fileName.toString());
+            if (env != null) {
+                pendingReloads.put(env, deadline);
+            }
+        }
+    }
+
+    private long nextDelayNanos() {
+        long now = System.nanoTime();
+        long next = Long.MAX_VALUE;
+        for (long deadline : pendingReloads.values()) {
+            next = Math.min(next, deadline - now);
+        }
+        return Math.max(next, 1);
+    }
+
+    private void reloadDueEnvironments() {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<String, Long>> iterator = pendingReloads.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Long> entry = iterator.next();
+            if (entry.getValue() - now > 0) {
+                continue;
+            }
+            iterator.remove();
+
+            String env = entry.getKey();
+            Path file = environmentIndex.getConfigDirectory()
+                    .resolve(ConfigEnvironmentIndex.FILE_PREFIX + env + ConfigEnvironmentIndex.FILE_SUFFIX);
+            environmentIndex.update(env, file);
+            // 未加载过的环境没有缓存需要替换，更新索引即可，不在这里解析和绑定
+            if (!configManager.isEnvironmentInUse(env)) {
+                logger.info("配置文件变化，环境 {} 未加载，只更新索引", env);
+                continue;
+            }
+            boolean success = configManager.reloadEnvironment(env);
+            logger.info("配置文件变化，重新加载环境 {}: {}", env, success ? "成功" : "失败");
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * 环境索引
+ * 扫描classpath和外部配置目录中的config-*.properties，建立 环境名 -> 配置文件 的索引
+ * 只记录文件位置，不读取文件内容
+ */
+@Component
+public class ConfigEnvironmentIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfigEnvironmentIndex.class);
+
+    static final String FILE_PREFIX = "config-";
+    static final String FILE_SUFFIX = ".properties";
+
+    private static final String CLASSPATH_PATTERN = "classpath*:" + FILE_PREFIX + "*" + FILE_SUFFIX;
+
+    // 环境名只允许字母、数字、下划线、中划线和点，防止路径穿越
+    static final Pattern ENVIRONMENT_NAME = Pattern.compile("[A-Za-z0-9_.-]+");
+
+    private final ResourcePatternResolver resourceResolver = new PathMatchingResourcePatternResolver();
+    private final Path configDirectory;
+
+    private final Map<String, Resource> index = new ConcurrentHashMap<>();
+    private final Set<String> environmentNames = Collections.unmodifiableSet(index.keySet());
+
+    @Autowired
+    public ConfigEnvironmentIndex(DynamicConfigProperties properties) {
+        String directory = properties.getConfigDirectory();
+        this.configDirectory = directory != null && !directory.isBlank() ? Paths.get(directory) : null;
+        refresh();
+    }
+
+    /**
+     * 重新扫描classpath和外部配置目录
+     */
+    public void refresh() {
+        long startTime = System.currentTimeMillis();
+        Map<String, Resource> scanned = new ConcurrentHashMap<>();
+        scanClasspath(scanned);
+        scanDirectory(scanned);
+
+        index.putAll(scanned);
+        index.keySet().retainAll(scanned.keySet());
+        logger.info("环境索引完成: 共 {} 个环境，耗时 {}ms", index.size(), System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * 判断环境是否存在
+     * 索引未命中时检查外部目录，支持启动后新增的环境文件
+     */
+    public boolean contains(String env) {
+        return getResource(env) != null;
+    }
+
+    /**
+     * 只查内存索引判断环境是否存在，不访问文件系统，供按请求参数选择环境的路径使用
+     * 启动后新增的环境文件由目录监听或refresh()加入索引后才可见
+     */
+    public boolean isIndexed(String env) {
+        return env != null && index.containsKey(env);
+    }
+
+    /**
+     * 获取环境对应的配置文件
+     *
+     * @return 配置文件，不存在时返回null
+     */
+    public Resource getResource(String env) {
+        if (env == null) {
+            return null;
+        }
+        Resource resource = index.get(env);
+        if (resource != null || configDirectory == null || !ENVIRONMENT_NAME.matcher(env).matches()) {
+            return resource;
+        }
+
+        Path file = configDirectory.resolve(FILE_PREFIX + env + FILE_SUFFIX);
+        if (Files.isRegularFile(file)) {
+            resource = new FileSystemResource(file);
+            Resource existing = index.putIfAbsent(env, resource);
+            logger.info("发现新的环境配置文件: {}", file);
+            return existing != null ? existing : resource;
+        }
+        return null;
+    }
+
+    /**
+     * 按外部目录中文件的当前状态更新单个环境
+     * 文件被删除时回退到classpath中的同名环境（如果有）
+     */
+    public void update(String env, Path file) {
+        if (Files.isRegularFile(file)) {
+            index.put(env, new FileSystemResource(file));
+            return;
+        }
+
+        index.remove(env);
+        Map<String, Resource> classpathResources = new ConcurrentHashMap<>();
+        scanClasspath(classpathResources);
+        Resource fallback = classpathResources.get(env);
+        if (fallback != null) {
+            index.put(env, fallback);
+        }
+    }
+
+    /**
+     * 外部配置目录，未配置时返回null
+     */
+    public Path getConfigDirectory() {
+        return configDirectory;
+    }
+
+    /**
+     * 所有已知环境（只读视图）
+     */
+    public Set<String> getEnvironmentNames() {
+        return environmentNames;
+    }
+
+    /**
+     * 从文件名中解析环境名，不是环境配置文件时返回null
+     */
+    public static String environmentOf(String fileName) {
+        if (fileName == null || !fileName.startsWith(FILE_PREFIX) || !fileName.endsWith(FILE_SUFFIX)) {
+            return null;
+        }
+        String env = fileName.substring(FILE_PREFIX.length(), fileName.length() - FILE_SUFFIX.length());
+        return ENVIRONMENT_NAME.matcher(env).matches() ? env : null;
+    }
+
+    private void scanClasspath(Map<String, Resource> target) {
+        try {
+            for (Resource resource : resourceResolver.getResources(CLASSPATH_PATTERN)) {
+                String env = environmentOf(resource.getFilename());
+                if (env != null) {
+                    target.putIfAbsent(env, resource);
+                }
+            }
+        } catch (IOException e) {
+            logger.error("扫描classpath环境配置失败", e);
+        }
+    }
+
+    private void scanDirectory(Map<String, Resource> target) {
+        if (configDirectory == null) {
+            return;
+        }
+        if (!Files.isDirectory(configDirectory)) {
+            logger.warn("外部配置目录不存在: {}", configDirectory);
+            return;
+        }
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(configDirectory, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                String env = environmentOf(file.getFileName().toString());
+                if (env != null && Files.isRegularFile(file)) {
+                    // 外部目录优先于classpath
+                    target.put(env, new FileSystemResource(file));
+                }
+            }
+        } catch (IOException e) {
+            logger.error("扫描外部配置目录失败: {}", configDirectory, e);
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package com.example.config;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ApplicationListenerMethodAdapter;
+import org.springframework.context.event.SimpleApplicationEventMulticaster;
+import org.springframework.context.support.AbstractApplicationContext;
+import org.springframework.core.ResolvableType;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+/**
+ * 应用事件分发器
+ * EnvironmentChangeEvent交给每个监听器自己的单线程执行器，按发布顺序（即快照版本顺序）依次处理，
+ * 慢监听器不会拖住切换线程和其他监听器；其他事件仍按Spring默认方式同步分发
+ *
+ * 每个监听器的队列有界，队列已满时按dynamic-config.events.slow-listener-policy阻塞发布方（最长block-timeout）
+ * 或丢弃最早的事件；监听器在自己的线程上触发切换时不会等待自己的队列
+ *
+ * 同步分发时监听器的异常照常抛给发布方；异步分发时没有调用方可以接收，只记录日志
+ *
+ * 设置了dynamic-config.events.coalesce-window时，窗口内连续的全局切换合并为一个事件，
+ * 在窗口结束时分发；其他作用域的事件到达时先分发已合并的全局事件，保持版本顺序
+ *
+ * 每次监听器调用都计时并记入该监听器的延迟直方图，超过dynamic-config.events.slow-listener-budget时记录警告，
+ * 统计通过/actuator/configevents查看
+ */
+@Component(AbstractApplicationContext.APPLICATION_EVENT_MULTICASTER_BEAN_NAME)
+public class ConfigEventMulticaster extends SimpleApplicationEventMulticaster implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfigEventMulticaster.class);
+
+    private final boolean async;
+    private final int queueCapacity;
+    private final DynamicConfigProperties.SlowListenerPolicy policy;
+    private final long blockTimeoutNanos;
+    private final long coalesceWindowMillis;
+
+    // 合并窗口内等待分发的全局事件；分发过程也在coalesceLock内进行，保证跨线程的分发顺序
+    private final Object coalesceLock = new Object();
+    private final ScheduledThreadPoolExecutor coalesceTimer;
+    private EnvironmentChangeEvent coalescing;
+    private ScheduledFuture<?> coalesceFlush;
+    private final LongAdder coalesced = new LongAdder();
+
+    private final long budgetNanos;
+
+    private final Map<ApplicationListener<?>, ListenerExecutor> executors = new ConcurrentHashMap<>();
+    private final Map<ApplicationListener<?>, ListenerMetrics> metrics = new ConcurrentHashMap<>();
+
+    // 在监听器线程上执行前包装任务，由DynamicConfigManager设置为绑定事件对应的快照
+    private volatile BiFunction<EnvironmentChangeEvent, Runnable, Runnable> taskDecorator = (event, task) -> task;
+
+    private volatile boolean shutdown;
+
+    @Autowired
+    public ConfigEventMulticaster(DynamicConfigProperties configProperties) {
+        DynamicConfigProperties.Events events = configProperties.getEvents();
+        this.async = events.isAsync();
+        this.queueCapacity = Math.max(1, events.getQueueCapacity());
+        this.policy = events.getSlowListenerPolicy();
+        this.blockTimeoutNanos = events.getBlockTimeout() != null ? events.getBlockTimeout().toNanos() : 0;
+        this.budgetNanos = events.getSlowListenerBudget() != null ? events.getSlowListenerBudget().toNanos() : 0;
+        this.coalesceWindowMillis = events.getCoalesceWindow() != null ? events.getCoalesceWindow().toMillis() : 0;
+        if (coalesceWindowMillis > 0) {
+            this.coalesceTimer = new ScheduledThreadPoolExecutor(1, runnable -> {
+                Thread thread = new Thread(runnable, "config-event-coalesce");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.coalesceTimer = null;
+        }
+    }
+
+    void setTaskDecorator(BiFunction<EnvironmentChangeEvent, Runnable, Runnable> taskDecorator) {
+        this.taskDecorator = taskDecorator;
+    }
+
+    @Override
+    public void multicastEvent(ApplicationEvent event, ResolvableType eventType) {
+        if (!(event instanceof EnvironmentChangeEvent)) {
+            super.multicastEvent(event, eventType);
+            return;
+        }
+
+        EnvironmentChangeEvent changeEvent = (EnvironmentChangeEvent) event;
+        if (coalesceTimer == null) {
+            dispatch(changeEvent, eventType);
+            return;
+        }
+
+        synchronized (coalesceLock) {
+            if (!changeEvent.isGlobal() || shutdown) {
+                dispatchCoalesced();
+                dispatch(changeEvent, eventType);
+            } else if (coalescing == null) {
+                coalescing = changeEvent;
+                coalesceFlush = coalesceTimer.schedule(this::flushCoalescedQuietly, coalesceWindowMillis,
+                                                       TimeUnit.MILLISECONDS);
+            } else {
+                coalescing = coalescing.coalesce(changeEvent);
+                coalesced.increment();
+            }
+        }
+    }
+
+    /**
+     * 窗口结束，分发合并后的全局事件
+     */
+    private void flushCoalesced() {
+        synchronized (coalesceLock) {
+            dispatchCoalesced();
+        }
+    }
+
+    /**
+     * 定时器线程上的分发没有调用方接收异常，只记录日志
+     */
+    private void flushCoalescedQuietly() {
+        try {
+            flushCoalesced();
+        } catch (RuntimeException e) {
+            logger.error("分发合并的环境切换事件失败", e);
+        }
+    }
+
+    /**
+     * 提前结束窗口时取消定时分发，避免它提前结束下一个窗口
+     */
+    private void dispatchCoalesced() {
+        EnvironmentChangeEvent event = coalescing;
+        if (event != null) {
+            coalescing = null;
+            coalesceFlush.cancel(false);
+            dispatch(event, null);
+        }
+    }
+
+    private void dispatch(EnvironmentChangeEvent changeEvent, ResolvableType eventType) {
+        ResolvableType type = eventType != null ? eventType : ResolvableType.forInstance(changeEvent);
+        for (ApplicationListener<?> listener : getApplicationListeners(changeEvent, type)) {
+            ListenerMetrics listenerMetrics = metrics.computeIfAbsent(listener, ListenerMetrics::new);
+            Runnable task = taskDecorator.apply(changeEvent,
+                                                () -> invokeTimed(listener, changeEvent, listenerMetrics));
+            if (!async || shutdown) {
+                task.run();
+            } else {
+                executors.computeIfAbsent(listener, ListenerExecutor::new).submit(changeEvent, task);
+            }
+        }
+    }
+
+    /**
+     * 调用监听器并记录耗时，失败计入统计后原样抛出
+     */
+    private void invokeTimed(ApplicationListener<?> listener, EnvironmentChangeEvent event, ListenerMetrics metrics) {
+        long start = System.nanoTime();
+        try {
+            invokeListener(listener, event);
+        } catch (RuntimeException e) {
+            metrics.failures.increment();
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            metrics.recorder.recordValue(Math.max(0, elapsed));
+            if (budgetNanos > 0 && elapsed > budgetNanos) {
+                metrics.overBudget.increment();
+                logger.warn("监听器 {} 处理事件耗时 {} ms，超过预算 {} ms (版本: {})",
+                           metrics.name, elapsed / 1_000_000, budgetNanos / 1_000_000, event.getVersion());
+            }
+        }
+    }
+
+    /**
+     * 获取各监听器的分发统计：延迟分布、超出预算和失败次数，异步分发时还有队列中、已处理、已丢弃的事件数
+     * p99超过预算的监听器标记为slow
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("async", async);
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("slowListenerPolicy", policy.name());
+        stats.put("slowListenerBudgetMillis", budgetNanos / 1_000_000.0);
+        stats.put("coalesceWindowMillis", coalesceWindowMillis);
+        stats.put("coalescedEvents", coalesced.sum());
+
+        Map<String, Object> listeners = new HashMap<>();
+        for (Map.Entry<ApplicationListener<?>, ListenerMetrics> entry : metrics.entrySet()) {
+            ListenerMetrics listenerMetrics = entry.getValue();
+            Map<String, Object> listenerStats = new HashMap<>();
+            synchronized (listenerMetrics) {
+                Histogram latency = listenerMetrics.latency();
+                listenerStats.put("latency", LatencySummary.of(latency));
+                listenerStats.put("slow", budgetNanos > 0 && latency.getValueAtPercentile(99) > budgetNanos);
+            }
+            listenerStats.put("overBudget", listenerMetrics.overBudget.sum());
+            listenerStats.put("failures", listenerMetrics.failures.sum());
+            ListenerExecutor executor = executors.get(entry.getKey());
+            if (executor != null) {
+                listenerStats.put("queued", executor.pool.getQueue().size());
+                listenerStats.put("completed", executor.pool.getCompletedTaskCount());
+                listenerStats.put("dropped", executor.dropped.sum());
+            }
+            listeners.put(listenerMetrics.name, listenerStats);
+        }
+        stats.put("listeners", listeners);
+        return stats;
+    }
+
+    /**
+     * 停止接收新事件，已入队的事件处理完后线程退出
+     */
+    @Override
+    public void destroy() {
+        shutdown = true;
+        if (coalesceTimer != null) {
+            coalesceTimer.shutdownNow();
+            flushCoalesced();
+        }
+        for (ListenerExecutor executor : executors.values()) {
+            executor.pool.shutdown();
+        }
+    }
+
+    static String listenerName(ApplicationListener<?> listener) {
+        if (listener instanceof ApplicationListenerMethodAdapter) {
+            return ((ApplicationListenerMethodAdapter) listener).getListenerId();
+        }
+        return listener.getClass().getName();
+    }
+
+    /**
+     * 单个监听器的调用统计
+     * 调用线程通过Recorder无锁记录耗时，读取统计时把区间数据并入累计直方图
+     */
+    private static final class ListenerMetrics {
+
+        private final String name;
+        private final Recorder recorder = new Recorder(LatencySummary.SIGNIFICANT_DIGITS);
+        private final Histogram cumulative = LatencySummary.newHistogram();
+        private Histogram interval;
+        private final LongAdder overBudget = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+
+        ListenerMetrics(ApplicationListener<?> listener) {
+            this.name = listenerName(listener);
+        }
+
+        /**
+         * 累计的耗时直方图，调用方需持有本对象的锁
+         */
+        Histogram latency() {
+            interval = recorder.getIntervalHistogram(interval);
+            cumulative.add(interval);
+            return cumulative;
+        }
+    }
+
+    /**
+     * 单个监听器的执行器：一个线程、一个有界队列
+     * BLOCK策略下用信号量计数队列中的事件：入队前取得许可，事件出队开始执行时归还，
+     * 发布方只在许可上限时等待，始终通过execute提交，不直接写入线程池的队列
+     */
+    private final class ListenerExecutor {
+
+        private final String name;
+        private final ThreadPoolExecutor pool;
+        private final Semaphore queuePermits;
+        private final LongAdder dropped = new LongAdder();
+        private volatile Thread worker;
+
+        ListenerExecutor(ApplicationListener<?> listener) {
+            this.name = listenerName(listener);
+            this.queuePermits = policy == DynamicConfigProperties.SlowListenerPolicy.BLOCK
+                    ? new Semaphore(queueCapacity) : null;
+            this.pool = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                                               new ArrayBlockingQueue<>(queueCapacity),
+                                               runnable -> {
+                                                   Thread thread = new Thread(runnable, "config-event-" + name);
+                                                   thread.setDaemon(true);
+                                                   worker = thread;
+                                                   return thread;
+                                               }) {
+                @Override
+                protected void beforeExecute(Thread thread, Runnable task) {
+                    if (queuePermits != null) {
+                        queuePermits.release();
+                    }
+                }
+            };
+        }
+
+        void submit(EnvironmentChangeEvent event, Runnable task) {
+            Runnable guarded = () -> {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    logger.error("监听器 {} 处理事件失败: {}", name, event, e);
+                }
+            };
+            if (queuePermits == null) {
+                submitDroppingOldest(guarded);
+            } else if (Thread.currentThread() == worker) {
+                // 监听器在自己的线程上触发了切换，等待队列腾出空间就是等待自己
+                submitFromWorker(guarded);
+            } else {
+                submitBlocking(guarded);
+            }
+        }
+
+        private void submitDroppingOldest(Runnable task) {
+            while (true) {
+                try {
+                    pool.execute(task);
+                    return;
+                } catch (RejectedExecutionException e) {
+                    if (pool.isShutdown()) {
+                        logger.warn("事件分发已停止，丢弃监听器 {} 的事件", name);
+                        return;
+                    }
+                    if (pool.getQueue().poll() != null) {
+                        dropped.increment();
+                        logger.warn("监听器 {} 处理不及时，丢弃最早的事件", name);
+                    }
+                }
+            }
+        }
+
+        /**
+         * 等待队列腾出空间，超过block-timeout或等待期间被中断时丢弃事件
+         */
+        private void submitBlocking(Runnable task) {
+            try {
+                if (!queuePermits.tryAcquire(blockTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                    dropped.increment();
+                    logger.warn("监听器 {} 的队列在 {} ms 内没有空位，丢弃事件", name, blockTimeoutNanos / 1_000_000);
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                dropped.increment();
+                logger.warn("等待监听器 {} 的队列时被中断，丢弃事件", name);
+                return;
+            }
+            execute(task);
+        }
+
+        /**
+         * 在监听器线程上提交：不等待，队列已满时丢弃最早的事件为新事件腾出位置
+         */
+        private void submitFromWorker(Runnable task) {
+            while (!queuePermits.tryAcquire()) {
+                if (pool.isShutdown()) {
+                    logger.warn("事件分发已停止，丢弃监听器 {} 的事件", name);
+                    return;
+                }
+                if (pool.getQueue().poll() != null) {
+                    queuePermits.release();
+                    dropped.increment();
+                    logger.warn("监听器 {} 在自身线程上触发切换且队列已满，丢弃最早的事件", name);
+                }
+            }
+            execute(task);
+        }
+
+        private void execute(Runnable task) {
+            try {
+                pool.execute(task);
+            } catch (RejectedExecutionException e) {
+                queuePermits.release();
+                logger.warn("事件分发已停止，丢弃监听器 {} 的事件", name);
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 环境切换事件分发的actuator端点（/actuator/configevents）
+ * 各监听器的延迟分布、超出预算次数、失败次数和队列状态
+ */
+@Component
+@Endpoint(id = "configevents")
+public class ConfigEventsEndpoint {
+
+    private final ConfigEventMulticaster eventMulticaster;
+
+    @Autowired
+    public ConfigEventsEndpoint(ConfigEventMulticaster eventMulticaster) {
+        this.eventMulticaster = eventMulticaster;
+    }
+
+    @ReadOperation
+    public Map<String, Object> events() {
+        return eventMulticaster.getStatistics();
+    }
+}
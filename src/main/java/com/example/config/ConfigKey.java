@@ -0,0 +1,147 @@
+package com.example.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 类型化的配置项句柄
+ * 通过 DynamicConfigManager.key(...) 在启动时创建一次，之后 get() 按调用方的有效作用域
+ * （临时配置优先，其次全局配置）读取值：每个快照的ConfigStore按句柄序号缓存转换好的值，
+ * 命中后只有一次数组读取，不遍历属性源链，也不重复做类型转换
+ *
+ * 支持 String、Integer、Long、Boolean，转换规则与AppConfig绑定一致；
+ * AppConfig中的配置项直接取绑定后的值（包含默认值）
+ */
+public final class ConfigKey<T> {
+
+    // 键 + 类型 -> 序号，相同键和类型的句柄共享缓存
+    private static final Map<String, Integer> ORDINALS = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_ORDINAL = new AtomicInteger();
+
+    private final String key;
+    private final Class<T> type;
+    private final T defaultValue;
+    private final int ordinal;
+    private final ConfigSlot slot;
+    private final DynamicConfigManager configManager;
+
+    ConfigKey(String key, Class<T> type, T defaultValue, DynamicConfigManager configManager) {
+        ConfigSlot.Type slotType = slotType(type);
+        this.key = key;
+        this.type = type;
+        this.defaultValue = defaultValue;
+        this.ordinal = ORDINALS.computeIfAbsent(key + '#' + type.getName(), k -> NEXT_ORDINAL.getAndIncrement());
+        ConfigSlot layoutSlot = ConfigStoreLayout.slotOf(key);
+        this.slot = layoutSlot != null && layoutSlot.getType() == slotType ? layoutSlot : null;
+        this.configManager = configManager;
+    }
+
+    /**
+     * 读取当前有效作用域中的值，配置项不存在时返回默认值
+     */
+    public T get() {
+        return get(configManager.getCurrentSnapshot());
+    }
+
+    /**
+     * 读取指定快照中的值
+     * 需要同时读取多个配置项时，先取一次快照再逐个读取，保证各个值来自同一环境
+     */
+    @SuppressWarnings("unchecked")
+    public T get(ConfigSnapshot snapshot) {
+        if (snapshot == null) {
+            return defaultValue;
+        }
+        Object value = snapshot.getStore().keyValue(ordinal);
+        if (value == null) {
+            value = resolve(snapshot);
+        }
+        return value == ConfigStore.ABSENT ? defaultValue : (T) value;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    public T getDefaultValue() {
+        return defaultValue;
+    }
+
+    /**
+     * 首次在某个快照上读取时解析并缓存值
+     */
+    private Object resolve(ConfigSnapshot snapshot) {
+        ConfigStore store = snapshot.getStore();
+        Object value;
+        if (slot != null) {
+            value = readSlot(store);
+        } else {
+            String text = snapshot.getProperties().get(key);
+            value = text != null ? convert(configManager.resolvePlaceholders(snapshot, text)) : ConfigStore.ABSENT;
+        }
+        store.cacheKeyValue(ordinal, value);
+        return value;
+    }
+
+    private Object readSlot(ConfigStore store) {
+        switch (slot.getType()) {
+            case INT:
+                return store.getInt(slot);
+            case BOOLEAN:
+                return store.getBoolean(slot);
+            default:
+                String value = store.getString(slot);
+                return value != null ? value : ConfigStore.ABSENT;
+        }
+    }
+
+    private Object convert(String text) {
+        if (type == String.class) {
+            return text;
+        }
+        // 空值与AppConfig绑定一致：视为未配置
+        if (text.trim().isEmpty()) {
+            return ConfigStore.ABSENT;
+        }
+        if (type == Integer.class) {
+            return AppConfigBinder.parseInt(key, text);
+        }
+        if (type == Long.class) {
+            return AppConfigBinder.parseLong(key, text);
+        }
+        return AppConfigBinder.parseBoolean(key, text);
+    }
+
+    /**
+     * 句柄类型对应的槽位类型；AppConfig中没有long配置项，Long句柄始终从快照属性解析，返回null
+     */
+    private static ConfigSlot.Type slotType(Class<?> type) {
+        if (type == Integer.class) {
+            return ConfigSlot.Type.INT;
+        }
+        if (type == Long.class) {
+            return null;
+        }
+        if (type == Boolean.class) {
+            return ConfigSlot.Type.BOOLEAN;
+        }
+        if (type == String.class) {
+            return ConfigSlot.Type.STRING;
+        }
+        throw new IllegalArgumentException("不支持的配置项类型: " + type.getName());
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigKey{" +
+                "key='" + key + '\'' +
+                ", type=" + type.getSimpleName() +
+                ", defaultValue=" + defaultValue +
+                '}';
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * 请求级配置过滤器
+ * 请求头（或Cookie）指定环境时，为当前请求绑定该环境的缓存快照（REQUEST作用域）；无论是否指定，
+ * 请求结束时都在finally中清理，池化的工作线程不会把覆盖配置带到后续请求
+ *
+ * 已缓存环境的选择只有一次ConcurrentHashMap查找和一次ThreadLocal写入，不重新绑定、不分配对象
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class ConfigRequestFilter extends OncePerRequestFilter {
+
+    private final DynamicConfigManager configManager;
+    private final String headerName;
+    private final String cookieName;
+
+    @Autowired
+    public ConfigRequestFilter(DynamicConfigManager configManager, DynamicConfigProperties configProperties) {
+        this.configManager = configManager;
+        this.headerName = configProperties.getRequest().getHeader();
+        String cookie = configProperties.getRequest().getCookie();
+        this.cookieName = cookie != null && !cookie.isEmpty() ? cookie : null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String environment = requestedEnvironment(request);
+        try {
+            if (environment != null) {
+                ConfigSnapshot snapshot = configManager.resolveSnapshot(environment);
+                if (snapshot == null) {
+                    response.sendError(HttpServletResponse.SC_BAD_REQUEST, "不支持的环境: " + environment);
+                    return;
+                }
+                configManager.bindRequestSnapshot(snapshot);
+            }
+            filterChain.doFilter(request, response);
+        } finally {
+            // 控制器中通过API设置的请求级配置同样在这里清理
+            configManager.clearRequestConfig();
+        }
+    }
+
+    /**
+     * 请求头优先，其次是Cookie
+     *
+     * @return 环境名称，未指定时返回null
+     */
+    private String requestedEnvironment(HttpServletRequest request) {
+        String environment = request.getHeader(headerName);
+        if (environment != null && !environment.isEmpty()) {
+            return environment;
+        }
+        if (cookieName == null) {
+            return null;
+        }
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (cookieName.equals(cookie.getName()) && !cookie.getValue().isEmpty()) {
+                return cookie.getValue();
+            }
+        }
+        return null;
+    }
+}
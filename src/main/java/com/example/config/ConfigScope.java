@@ -11,6 +11,12 @@ public enum ConfigScope {
      * 使用ThreadLocal存储，请求结束后自动清理
      */
     TEMPORARY("temporary", "临时修改"),
+
+    /**
+     * 请求级修改 - 只影响当前HTTP请求，由ConfigRequestFilter在请求结束时清理
+     * 优先于临时修改，不发布切换事件
+     */
+    REQUEST("request", "请求级修改"),
     
     /**
      * 全局修改 - 修改全局配置实例，影响所有后续请求
@@ -49,7 +55,7 @@ public enum ConfigScope {
         }
         
         throw new IllegalArgumentException("不支持的配置作用域: " + code + 
-                                         "，支持的作用域: temporary, global");
+                                         "，支持的作用域: temporary, request, global");
     }
     
     /**
@@ -59,6 +65,13 @@ public enum ConfigScope {
         return this == TEMPORARY;
     }
     
+    /**
+     * 是否为请求级作用域
+     */
+    public boolean isRequest() {
+        return this == REQUEST;
+    }
+
     /**
      * 是否为全局作用域
      */
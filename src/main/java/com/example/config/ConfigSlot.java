@@ -0,0 +1,51 @@
+package com.example.config;
+
+/**
+ * 配置存储中的槽位
+ * 键在ConfigStoreLayout中只解析一次，之后按类型和下标直接读取ConfigStore中的数组
+ */
+public final class ConfigSlot {
+
+    /**
+     * 槽位类型，决定值存放在哪个数组中
+     */
+    public enum Type {
+        INT,
+        BOOLEAN,
+        STRING
+    }
+
+    private final String key;
+    private final Type type;
+    private final int index;
+
+    ConfigSlot(String key, Type type, int index) {
+        this.key = key;
+        this.type = type;
+        this.index = index;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * 在对应类型数组中的下标
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigSlot{" +
+                "key='" + key + '\'' +
+                ", type=" + type +
+                ", index=" + index +
+                '}';
+    }
+}
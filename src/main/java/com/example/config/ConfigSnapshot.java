@@ -0,0 +1,112 @@
+package com.example.config;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * 配置快照
+ * 每次环境切换都会生成一个完整绑定、带版本号的不可变快照，
+ * 并通过单个volatile引用整体发布，读取方不会看到新旧环境混合的配置
+ *
+ * 构造时冻结传入的AppConfig，通过getConfig()取到的实例及其嵌套配置都是只读的
+ */
+public final class ConfigSnapshot {
+
+    private final long version;
+    private final String environment;
+    private final AppConfig config;
+    private final ConfigStore store;
+    private final Map<String, String> properties;
+    private final long createdAt;
+
+    public ConfigSnapshot(long version, String environment, AppConfig config) {
+        this(version, environment, config, Collections.emptyMap());
+    }
+
+    public ConfigSnapshot(long version, String environment, AppConfig config, Map<String, String> properties) {
+        if (environment == null || config == null) {
+            throw new IllegalArgumentException("快照的环境名称和配置实例不能为空");
+        }
+        this.version = version;
+        this.environment = environment;
+        config.freeze();
+        this.config = config;
+        this.store = ConfigStore.from(config);
+        // 包内的只读属性实现直接共享：MappedProperties保持键值按需创建，OverlayProperties不复制基础属性
+        this.properties = properties instanceof MappedProperties || properties instanceof OverlayProperties
+                ? properties
+                : Collections.unmodifiableMap(new LinkedHashMap<>(properties));
+        this.createdAt = System.currentTimeMillis();
+    }
+
+    private ConfigSnapshot(long version, ConfigSnapshot source) {
+        this.version = version;
+        this.environment = source.environment;
+        this.config = source.config;
+        this.store = source.store;
+        this.properties = source.properties;
+        this.createdAt = System.currentTimeMillis();
+    }
+
+    /**
+     * 从Properties创建快照
+     */
+    public static ConfigSnapshot of(long version, String environment, AppConfig config, Properties properties) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String name : properties.stringPropertyNames()) {
+            values.put(name, properties.getProperty(name));
+        }
+        return new ConfigSnapshot(version, environment, config, values);
+    }
+
+    /**
+     * 以新的版本号重新发布同一份配置，配置实例和属性在快照之间共享
+     */
+    public ConfigSnapshot withVersion(long newVersion) {
+        return new ConfigSnapshot(newVersion, this);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public String getEnvironment() {
+        return environment;
+    }
+
+    /**
+     * 快照的配置实例（已冻结，调用setter会抛出UnsupportedOperationException）
+     */
+    public AppConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * 与配置实例内容一致的扁平存储，用于按槽位读取
+     */
+    public ConfigStore getStore() {
+        return store;
+    }
+
+    /**
+     * 快照对应的原始配置属性（只读）
+     */
+    public Map<String, String> getProperties() {
+        return properties;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigSnapshot{" +
+                "version=" + version +
+                ", environment='" + environment + '\'' +
+                ", createdAt=" + createdAt +
+                '}';
+    }
+}
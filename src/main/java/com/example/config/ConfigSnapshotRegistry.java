@@ -0,0 +1,359 @@
+package com.example.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.bind.PropertySourcesPlaceholdersResolver;
+import org.springframework.boot.context.properties.source.ConfigurationProperty;
+import org.springframework.boot.context.properties.source.ConfigurationPropertyName;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySource;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 环境配置快照注册表
+ * 每个环境的配置文件只解析、绑定一次，之后的全局切换和临时切换直接复用缓存的快照
+ * 绑定过程完全基于私有属性源，不会修改共享的ConfigurableEnvironment
+ */
+@Component
+public class ConfigSnapshotRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfigSnapshotRegistry.class);
+
+    private static final String SNAPSHOT_SOURCE_PREFIX = "snapshotSource-";
+    private static final String ATTACHED_SOURCE_NAME = "configurationProperties";
+
+    private final ConfigurableEnvironment environment;
+    private final ConfigEnvironmentIndex environmentIndex;
+    private final DynamicConfigProperties configProperties;
+    private final ConfigValuePool valuePool;
+    private final ConfigSwitchMetrics switchMetrics;
+
+    // 已加载的环境快照（版本号为0，发布时再分配版本）
+    private final Map<String, ConfigSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ConfigSnapshotRegistry(ConfigurableEnvironment environment,
+                                  ConfigEnvironmentIndex environmentIndex,
+                                  DynamicConfigProperties configProperties,
+                                  ConfigValuePool valuePool,
+                                  ConfigSwitchMetrics switchMetrics) {
+        this.environment = environment;
+        this.environmentIndex = environmentIndex;
+        this.configProperties = configProperties;
+        this.valuePool = valuePool;
+        this.switchMetrics = switchMetrics;
+    }
+
+    /**
+     * 预加载指定环境的配置快照
+     */
+    public void preload(Collection<String> environments) {
+        long startTime = System.currentTimeMillis();
+        for (String env : environments) {
+            get(env);
+        }
+        logger.info("预加载环境配置完成: {}，耗时 {}ms", snapshots.keySet(), System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * 获取环境的配置快照，首次访问时加载
+     *
+     * @param env 环境名称
+     * @return 配置快照，配置文件不存在或加载失败时返回null
+     */
+    public ConfigSnapshot get(String env) {
+        ConfigSnapshot snapshot = snapshots.get(env);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        return loadSnapshot(env);
+    }
+
+    /**
+     * 重新加载单个环境的快照，其他环境的缓存不受影响
+     * 配置文件已不存在时移除缓存；解析或绑定失败时保留原有缓存
+     *
+     * @return 新的快照，失败时返回null
+     */
+    public ConfigSnapshot reload(String env) {
+        if (!environmentIndex.contains(env)) {
+            snapshots.remove(env);
+            logger.info("环境配置文件已移除，清除缓存: {}", env);
+            return null;
+        }
+
+        Map<String, String> properties = timedLoad(env);
+        if (properties == null) {
+            return null;
+        }
+
+        try {
+            ConfigSnapshot snapshot = new ConfigSnapshot(0, env, timedBind(env, properties), properties);
+            snapshots.put(env, snapshot);
+            logger.info("重新加载环境配置快照: {}", env);
+            return snapshot;
+        } catch (Exception e) {
+            logger.error("重新绑定环境配置失败，保留原有快照: {}", env, e);
+            return null;
+        }
+    }
+
+    /**
+     * 基于环境快照创建叠加了覆盖属性的新快照（不缓存）
+     * 基础环境的属性不复制，只有覆盖层和绑定结果属于新快照
+     *
+     * @return 新快照，基础环境不存在或绑定失败时返回null
+     */
+    public ConfigSnapshot createOverlaySnapshot(String baseEnv, Map<String, String> overlay) {
+        ConfigSnapshot base = get(baseEnv);
+        if (base == null) {
+            return null;
+        }
+
+        OverlayProperties properties = new OverlayProperties(base.getProperties(), overlay);
+        try {
+            return new ConfigSnapshot(0, baseEnv, timedBind(baseEnv, properties), properties);
+        } catch (Exception e) {
+            logger.error("绑定覆盖配置失败，基础环境: {}", baseEnv, e);
+            return null;
+        }
+    }
+
+    /**
+     * 读取覆盖配置文件
+     *
+     * @return 配置属性，读取失败时返回null
+     */
+    public Map<String, String> readOverlay(Path file) {
+        try {
+            return readProperties(new FileSystemResource(file));
+        } catch (IOException | IllegalArgumentException e) {
+            logger.error("读取覆盖配置文件失败: {}", file, e);
+            return null;
+        }
+    }
+
+    /**
+     * 判断环境是否存在（只查索引，不加载内容）
+     */
+    public boolean isSupported(String env) {
+        return environmentIndex.contains(env);
+    }
+
+    /**
+     * 判断环境是否在内存索引中，不访问文件系统
+     */
+    public boolean isIndexed(String env) {
+        return environmentIndex.isIndexed(env);
+    }
+
+    /**
+     * 所有已知环境
+     */
+    public Set<String> getSupportedEnvironments() {
+        return environmentIndex.getEnvironmentNames();
+    }
+
+    /**
+     * 判断环境是否已缓存
+     */
+    public boolean isLoaded(String env) {
+        return snapshots.containsKey(env);
+    }
+
+    /**
+     * 获取已缓存的环境快照，不触发加载
+     *
+     * @return 快照，未缓存时返回null
+     */
+    public ConfigSnapshot getIfLoaded(String env) {
+        return snapshots.get(env);
+    }
+
+    /**
+     * 获取已缓存的环境
+     */
+    public Set<String> getLoadedEnvironments() {
+        return snapshots.keySet();
+    }
+
+    /**
+     * 加载并缓存环境快照
+     * 绑定只使用私有的属性源，不修改共享的Environment，因此无需加锁；
+     * 并发首次加载同一环境时只保留先完成的结果
+     */
+    private ConfigSnapshot loadSnapshot(String env) {
+        Map<String, String> properties = timedLoad(env);
+        if (properties == null) {
+            return null;
+        }
+
+        try {
+            ConfigSnapshot snapshot = new ConfigSnapshot(0, env, timedBind(env, properties), properties);
+            ConfigSnapshot existing = snapshots.putIfAbsent(env, snapshot);
+            if (existing != null) {
+                return existing;
+            }
+            logger.debug("缓存环境配置快照: {}", env);
+            return snapshot;
+        } catch (Exception e) {
+            logger.error("绑定环境配置失败: {}", env, e);
+            return null;
+        }
+    }
+
+    private Map<String, String> timedLoad(String env) {
+        long start = System.nanoTime();
+        try {
+            return loadConfigProperties(env);
+        } finally {
+            switchMetrics.recordPhase(ConfigSwitchMetrics.Phase.LOAD, start);
+        }
+    }
+
+    private AppConfig timedBind(String env, Map<String, String> properties) {
+        long start = System.nanoTime();
+        try {
+            return bindConfig(env, properties);
+        } finally {
+            switchMetrics.recordPhase(ConfigSwitchMetrics.Phase.BIND, start);
+        }
+    }
+
+    /**
+     * 绑定配置实例
+     * 使用AppConfigBinder直接从私有属性绑定，占位符按 私有属性源 -> 应用Environment 的顺序只读解析；
+     * 环境文件中没有的配置项与切换前一样回退到应用的属性源（application.properties、命令行参数、系统属性、环境变量），
+     * 回退查找使用Spring的宽松名称规则，例如环境变量 APP_REDIS_HOST 对应 app.redis.host
+     */
+    public AppConfig bindConfig(String env, Map<String, String> properties) {
+        MapPropertySource privateSource = new MapPropertySource(
+            SNAPSHOT_SOURCE_PREFIX + env, Collections.<String, Object>unmodifiableMap(properties));
+        PropertySourcesPlaceholdersResolver resolver =
+                new PropertySourcesPlaceholdersResolver(placeholderSources(privateSource));
+        // 占位符解析出的新字符串同样放入字符串池
+        return AppConfigBinder.bind(properties, value -> {
+            Object resolved = resolver.resolvePlaceholders(value);
+            return resolved instanceof String ? valuePool.intern((String) resolved) : resolved;
+        }, applicationFallback());
+    }
+
+    /**
+     * 在应用属性源中查找配置项，不包含当前生效的动态配置源
+     */
+    private Function<String, String> applicationFallback() {
+        MutablePropertySources sources = new MutablePropertySources();
+        for (PropertySource<?> source : environment.getPropertySources()) {
+            if (isApplicationSource(source)) {
+                sources.addLast(source);
+            }
+        }
+        Iterable<ConfigurationPropertySource> configurationSources = ConfigurationPropertySources.from(sources);
+        return key -> {
+            ConfigurationPropertyName name = ConfigurationPropertyName.of(key);
+            for (ConfigurationPropertySource source : configurationSources) {
+                ConfigurationProperty property = source.getConfigurationProperty(name);
+                if (property != null && property.getValue() != null) {
+                    return valuePool.intern(property.getValue().toString());
+                }
+            }
+            return null;
+        };
+    }
+
+    /**
+     * 以快照自身的属性为最高优先级解析占位符，与绑定时的解析顺序一致
+     */
+    public String resolvePlaceholders(ConfigSnapshot snapshot, String text) {
+        MapPropertySource privateSource = new MapPropertySource(
+            SNAPSHOT_SOURCE_PREFIX + snapshot.getEnvironment(),
+            Collections.<String, Object>unmodifiableMap(snapshot.getProperties()));
+        Object resolved = new PropertySourcesPlaceholdersResolver(placeholderSources(privateSource))
+                .resolvePlaceholders(text);
+        return resolved != null ? resolved.toString() : null;
+    }
+
+    /**
+     * 构建占位符解析使用的属性源列表
+     * 排除当前生效的动态配置源以及包装了全部属性源的configurationProperties
+     */
+    private MutablePropertySources placeholderSources(PropertySource<?> privateSource) {
+        MutablePropertySources sources = new MutablePropertySources();
+        sources.addFirst(privateSource);
+        for (PropertySource<?> source : environment.getPropertySources()) {
+            if (isApplicationSource(source)) {
+                sources.addLast(source);
+            }
+        }
+        return sources;
+    }
+
+    private static boolean isApplicationSource(PropertySource<?> source) {
+        String name = source.getName();
+        return !DynamicConfigManager.DYNAMIC_CONFIG_SOURCE_NAME.equals(name) && !ATTACHED_SOURCE_NAME.equals(name);
+    }
+
+    /**
+     * 加载配置文件属性
+     * 启用mapped加载方式且配置文件位于文件系统时，使用内存映射解析，键值在首次访问时才创建
+     *
+     * @return 配置属性，文件不存在或读取失败时返回null
+     */
+    public Map<String, String> loadConfigProperties(String env) {
+        String configFileName = ConfigEnvironmentIndex.FILE_PREFIX + env + ConfigEnvironmentIndex.FILE_SUFFIX;
+        Resource resource = environmentIndex.getResource(env);
+
+        if (resource == null || !resource.exists()) {
+            logger.error("配置文件不存在: {}", configFileName);
+            return null;
+        }
+
+        try {
+            Map<String, String> properties;
+            if (configProperties.getLoader() == DynamicConfigProperties.Loader.MAPPED && resource.isFile()) {
+                properties = MappedProperties.load(resource.getFile().toPath());
+            } else {
+                properties = readProperties(resource);
+            }
+            logger.debug("成功加载配置文件: {}，包含 {} 个配置项", configFileName, properties.size());
+            return properties;
+        } catch (IOException | IllegalArgumentException e) {
+            logger.error("读取配置文件失败: {}", configFileName, e);
+            return null;
+        }
+    }
+
+    /**
+     * 使用Properties读取，键和值都放入共享的字符串池
+     */
+    private Map<String, String> readProperties(Resource resource) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream inputStream = resource.getInputStream()) {
+            properties.load(inputStream);
+        }
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String name : properties.stringPropertyNames()) {
+            values.put(valuePool.intern(name), valuePool.intern(properties.getProperty(name)));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.config;
+
+import java.util.Arrays;
+
+/**
+ * 扁平化的配置存储
+ * 每个快照持有一份，按ConfigStoreLayout分配的槽位把值放在按类型划分的并行数组中，
+ * 读取时只有一次数组访问，不做哈希查找，基本类型也不装箱
+ *
+ * 存储在创建后不可修改，与所属快照一起发布；
+ * ConfigKey句柄转换后的值按句柄序号在首次读取时缓存到存储中
+ */
+public final class ConfigStore {
+
+    /**
+     * 句柄缓存中表示配置项不存在的标记
+     */
+    static final Object ABSENT = new Object();
+
+    private static final Object[] NO_KEY_VALUES = new Object[0];
+
+    private final int[] ints;
+    private final boolean[] booleans;
+    private final Object[] references;
+
+    // ConfigKey句柄的值缓存，扩容时整体替换数组；并发写入丢失时只会导致重新解析
+    private volatile Object[] keyValues = NO_KEY_VALUES;
+
+    private ConfigStore(Builder builder) {
+        this.ints = builder.ints;
+        this.booleans = builder.booleans;
+        this.references = builder.references;
+    }
+
+    /**
+     * 从绑定好的AppConfig创建存储
+     */
+    public static ConfigStore from(AppConfig config) {
+        Builder builder = new Builder();
+        AppConfigBinder.store(config, builder);
+        return builder.build();
+    }
+
+    public int getInt(ConfigSlot slot) {
+        checkType(slot, ConfigSlot.Type.INT);
+        return ints[slot.getIndex()];
+    }
+
+    public boolean getBoolean(ConfigSlot slot) {
+        checkType(slot, ConfigSlot.Type.BOOLEAN);
+        return booleans[slot.getIndex()];
+    }
+
+    public String getString(ConfigSlot slot) {
+        checkType(slot, ConfigSlot.Type.STRING);
+        return (String) references[slot.getIndex()];
+    }
+
+    /**
+     * 读取句柄缓存的值，未缓存时返回null
+     */
+    Object keyValue(int ordinal) {
+        Object[] values = keyValues;
+        return ordinal < values.length ? values[ordinal] : null;
+    }
+
+    /**
+     * 缓存句柄解析出的值
+     */
+    synchronized void cacheKeyValue(int ordinal, Object value) {
+        Object[] values = keyValues;
+        if (ordinal >= values.length) {
+            values = Arrays.copyOf(values, Math.max(ordinal + 1, values.length * 2));
+        }
+        values[ordinal] = value;
+        keyValues = values;
+    }
+
+    private static void checkType(ConfigSlot slot, ConfigSlot.Type type) {
+        if (slot.getType() != type) {
+            throw new IllegalArgumentException("配置项 " + slot.getKey() + " 的类型是 " + slot.getType() + "，不能按 " + type + " 读取");
+        }
+    }
+
+    /**
+     * 存储构建器，数组大小按布局中的槽位数量分配
+     */
+    static final class Builder {
+
+        private final int[] ints = new int[ConfigStoreLayout.count(ConfigSlot.Type.INT)];
+        private final boolean[] booleans = new boolean[ConfigStoreLayout.count(ConfigSlot.Type.BOOLEAN)];
+        private final Object[] references = new Object[ConfigStoreLayout.count(ConfigSlot.Type.STRING)];
+
+        Builder setInt(String key, int value) {
+            ints[slot(key, ConfigSlot.Type.INT)] = value;
+            return this;
+        }
+
+        Builder setBoolean(String key, boolean value) {
+            booleans[slot(key, ConfigSlot.Type.BOOLEAN)] = value;
+            return this;
+        }
+
+        Builder setString(String key, String value) {
+            references[slot(key, ConfigSlot.Type.STRING)] = value;
+            return this;
+        }
+
+        ConfigStore build() {
+            return new ConfigStore(this);
+        }
+
+        private static int slot(String key, ConfigSlot.Type type) {
+            ConfigSlot slot = ConfigStoreLayout.slotOf(key);
+            if (slot == null || slot.getType() != type) {
+                throw new IllegalArgumentException("配置项 " + key + " 没有 " + type + " 类型的槽位");
+            }
+            return slot.getIndex();
+        }
+    }
+}
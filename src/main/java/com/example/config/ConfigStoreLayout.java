@@ -0,0 +1,59 @@
+package com.example.config;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 配置存储布局
+ * 全局的 键 -> 槽位 索引，所有快照共享同一布局；
+ * 布局在类加载时按AppConfigBinder的属性表一次性生成，之后不再改变，任何时候创建的ConfigStore数组大小都一致
+ */
+public final class ConfigStoreLayout {
+
+    private static final Map<String, ConfigSlot> SLOTS;
+    private static final Map<ConfigSlot.Type, Integer> COUNTS;
+
+    static {
+        Map<String, ConfigSlot> slots = new LinkedHashMap<>();
+        Map<ConfigSlot.Type, Integer> counts = new EnumMap<>(ConfigSlot.Type.class);
+        for (ConfigSlot.Type type : ConfigSlot.Type.values()) {
+            counts.put(type, 0);
+        }
+        AppConfigBinder.slotTypes().forEach((key, type) -> {
+            int index = counts.get(type);
+            slots.put(key, new ConfigSlot(key, type, index));
+            counts.put(type, index + 1);
+        });
+        SLOTS = Collections.unmodifiableMap(slots);
+        COUNTS = Collections.unmodifiableMap(counts);
+    }
+
+    private ConfigStoreLayout() {
+    }
+
+    /**
+     * 查找键对应的槽位
+     *
+     * @return 槽位，不是AppConfig的配置项时返回null
+     */
+    public static ConfigSlot slotOf(String key) {
+        return SLOTS.get(key);
+    }
+
+    /**
+     * 指定类型的槽位数量
+     */
+    static int count(ConfigSlot.Type type) {
+        return COUNTS.get(type);
+    }
+
+    /**
+     * 所有槽位
+     */
+    public static Collection<ConfigSlot> slots() {
+        return SLOTS.values();
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 环境切换的Micrometer指标
+ * - config.switch：每次switchEnvironment的耗时，按作用域（scope）和结果（result=success/failure）区分，计数即切换次数
+ * - config.switch.phase：各阶段耗时（phase=load/bind/property-source/instance-update/event-publish）
+ * - config.switch.lock.wait：等待切换锁的时间
+ *
+ * 所有Timer在启动时创建，记录时不查找注册表、不分配标签
+ */
+@Component
+public class ConfigSwitchMetrics {
+
+    /**
+     * 切换的各个阶段
+     */
+    public enum Phase {
+        /**
+         * 读取环境配置文件（快照未缓存或重新加载时）
+         */
+        LOAD("load"),
+
+        /**
+         * 绑定配置实例（快照未缓存、重新加载或属性覆盖时）
+         */
+        BIND("bind"),
+
+        /**
+         * 替换Environment中的动态属性源
+         */
+        PROPERTY_SOURCE("property-source"),
+
+        /**
+         * 刷新直接注入的AppConfig实例
+         */
+        INSTANCE_UPDATE("instance-update"),
+
+        /**
+         * 发布环境切换事件（异步分发时只包含入队）
+         */
+        EVENT_PUBLISH("event-publish");
+
+        private final String tag;
+
+        Phase(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final Map<Phase, Timer> phaseTimers = new EnumMap<>(Phase.class);
+    private final Map<ConfigScope, Timer> successTimers = new EnumMap<>(ConfigScope.class);
+    private final Map<ConfigScope, Timer> failureTimers = new EnumMap<>(ConfigScope.class);
+    private final Timer lockWaitTimer;
+
+    @Autowired
+    public ConfigSwitchMetrics(MeterRegistry meterRegistry) {
+        for (Phase phase : Phase.values()) {
+            phaseTimers.put(phase, Timer.builder("config.switch.phase")
+                    .description("环境切换各阶段耗时")
+                    .tag("phase", phase.tag)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        for (ConfigScope scope : ConfigScope.values()) {
+            successTimers.put(scope, switchTimer(meterRegistry, scope, "success"));
+            failureTimers.put(scope, switchTimer(meterRegistry, scope, "failure"));
+        }
+        this.lockWaitTimer = Timer.builder("config.switch.lock.wait")
+                .description("等待切换锁的时间")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static Timer switchTimer(MeterRegistry meterRegistry, ConfigScope scope, String result) {
+        return Timer.builder("config.switch")
+                .description("环境切换耗时")
+                .tag("scope", scope.getCode())
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * 记录从startNanos（System.nanoTime()）到现在的阶段耗时
+     */
+    public void recordPhase(Phase phase, long startNanos) {
+        phaseTimers.get(phase).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordLockWait(long startNanos) {
+        lockWaitTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordSwitch(ConfigScope scope, long startNanos, boolean success) {
+        Timer timer = success ? successTimers.get(scope) : failureTimers.get(scope);
+        timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+}
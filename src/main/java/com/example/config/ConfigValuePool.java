@@ -0,0 +1,89 @@
+package com.example.config;
+
+import org.springframework.stereotype.Component;
+
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 配置值字符串池
+ * 所有环境加载的键和值共享同一份规范实例，localhost、6379、true这类重复值只保留一个String；
+ * 池中只持有弱引用，不再被任何快照使用的值可以被GC回收
+ *
+ * 只在加载配置时使用，不在读取热路径上
+ */
+@Component
+public class ConfigValuePool {
+
+    // 规范实例，键和值都是弱引用，没有其他引用时条目会被自动清除
+    private final Map<String, WeakReference<String>> pool = new WeakHashMap<>();
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    // 累计去重的字节数：同一批值每次重新加载都会再计一次，不代表当前节省的内存
+    private final LongAdder bytesDeduplicated = new LongAdder();
+
+    /**
+     * 返回与value相等的规范实例
+     */
+    public String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        lookups.increment();
+        synchronized (pool) {
+            WeakReference<String> reference = pool.get(value);
+            String canonical = reference != null ? reference.get() : null;
+            if (canonical == null) {
+                pool.put(value, new WeakReference<>(value));
+                return value;
+            }
+            if (canonical != value) {
+                hits.increment();
+                bytesDeduplicated.add(estimateSize(value));
+            }
+            return canonical;
+        }
+    }
+
+    /**
+     * 池中当前的规范实例数量
+     */
+    public int size() {
+        synchronized (pool) {
+            return pool.size();
+        }
+    }
+
+    /**
+     * 获取字符串池统计信息
+     * lookups、deduplicated、cumulativeBytesDeduplicated 都是启动以来的累计值
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("pooledStrings", size());
+        stats.put("lookups", lookups.sum());
+        stats.put("deduplicated", hits.sum());
+        stats.put("cumulativeBytesDeduplicated", bytesDeduplicated.sum());
+        return stats;
+    }
+
+    /**
+     * 估算一个String占用的堆内存（压缩指针、紧凑字符串）：
+     * String对象24字节 + byte[]数组头16字节 + 内容，按8字节对齐
+     */
+    static long estimateSize(String value) {
+        int bytesPerChar = 1;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0xFF) {
+                bytesPerChar = 2;
+                break;
+            }
+        }
+        long array = 16L + (long) value.length() * bytesPerChar;
+        return 24L + ((array + 7) & ~7L);
+    }
+}
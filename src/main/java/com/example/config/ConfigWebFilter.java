@@ -0,0 +1,79 @@
+package com.example.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpCookie;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Function;
+
+/**
+ * 响应式请求级配置过滤器
+ * 请求头（或Cookie）指定环境时，把对应快照写入该请求订阅链的Reactor Context；
+ * 配置随请求本身传递，请求结束后无需清理
+ *
+ * 环境名只对照内存索引校验，未知的名称直接返回400；未缓存的环境在boundedElastic上加载
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class ConfigWebFilter implements WebFilter {
+
+    private final ReactiveConfigManager reactiveConfigManager;
+    private final String headerName;
+    private final String cookieName;
+
+    @Autowired
+    public ConfigWebFilter(ReactiveConfigManager reactiveConfigManager, DynamicConfigProperties configProperties) {
+        this.reactiveConfigManager = reactiveConfigManager;
+        this.headerName = configProperties.getRequest().getHeader();
+        String cookie = configProperties.getRequest().getCookie();
+        this.cookieName = cookie != null && !cookie.isEmpty() ? cookie : null;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String environment = requestedEnvironment(exchange);
+        if (environment == null) {
+            return chain.filter(exchange);
+        }
+
+        if (!reactiveConfigManager.isSupported(environment)) {
+            return reject(exchange);
+        }
+        return reactiveConfigManager.resolve(environment)
+                .map(snapshot -> chain.filter(exchange)
+                        .contextWrite(context -> context.put(ReactiveConfigManager.CONTEXT_KEY, snapshot)))
+                .defaultIfEmpty(Mono.defer(() -> reject(exchange)))
+                .flatMap(Function.identity());
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange) {
+        exchange.getResponse().setStatusCode(HttpStatus.BAD_REQUEST);
+        return exchange.getResponse().setComplete();
+    }
+
+    /**
+     * 请求头优先，其次是Cookie
+     *
+     * @return 环境名称，未指定时返回null
+     */
+    private String requestedEnvironment(ServerWebExchange exchange) {
+        String environment = exchange.getRequest().getHeaders().getFirst(headerName);
+        if (environment != null && !environment.isEmpty()) {
+            return environment;
+        }
+        if (cookieName == null) {
+            return null;
+        }
+        HttpCookie cookie = exchange.getRequest().getCookies().getFirst(cookieName);
+        return cookie != null && !cookie.getValue().isEmpty() ? cookie.getValue() : null;
+    }
+}
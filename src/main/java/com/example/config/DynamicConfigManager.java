@@ -3,19 +3,29 @@ package com.example.config;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.env.ConfigurableEnvironment;
-import org.springframework.core.env.PropertiesPropertySource;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.env.MapPropertySource;
 import org.springframework.stereotype.Component;
 
-import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * 动态配置管理器
@@ -26,26 +36,77 @@ public class DynamicConfigManager {
 
     private static final Logger logger = LoggerFactory.getLogger(DynamicConfigManager.class);
 
-    private static final String DYNAMIC_CONFIG_SOURCE_NAME = "dynamicConfigSource";
-    private static final Set<String> SUPPORTED_ENVIRONMENTS = Set.of("dev", "prod", "test");
+    static final String DYNAMIC_CONFIG_SOURCE_NAME = "dynamicConfigSource";
+    private static final String DEFAULT_ENVIRONMENT = "dev";
+    private static final String TENANT_ENVIRONMENT_KEY = "tenant.environment";
+    // 快照、AppConfig、ConfigStore等固定开销的估算值
+    private static final long TENANT_SNAPSHOT_OVERHEAD = 1024;
+
+    // 属性覆盖最多保留的回滚历史
+    private static final int MAX_OVERRIDE_HISTORY = 20;
 
     private final ConfigurableEnvironment environment;
     private final ApplicationEventPublisher eventPublisher;
     private final AppConfig appConfig;
-    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ConfigSnapshotRegistry snapshotRegistry;
+    private final ConfigSwitchMetrics switchMetrics;
+    // 只用于串行化全局切换，读取路径不加锁
+    private final ReentrantLock switchLock = new ReentrantLock();
+
+    // 待发布的事件：在switchLock内按版本顺序入队，释放锁后由一个发布方依次发布
+    private final Queue<EnvironmentChangeEvent> pendingEvents = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean publishing = new AtomicBoolean();
+
+    // 简单的ThreadLocal存储临时配置快照
+    private final ThreadLocal<ConfigSnapshot> temporaryConfig = new ThreadLocal<>();
+
+    // 请求级配置快照，由ConfigRequestFilter在请求结束时清理
+    private final ThreadLocal<ConfigSnapshot> requestConfig = new ThreadLocal<>();
+
+    // 快照版本号，每生成一个快照递增一次
+    private final AtomicLong versionSequence = new AtomicLong();
 
-    // 简单的ThreadLocal存储临时配置
-    private final ThreadLocal<AppConfig> temporaryConfig = new ThreadLocal<>();
+    // 当前全局配置快照，切换时整体替换，读取时只需一次volatile读
+    private volatile ConfigSnapshot currentSnapshot;
 
-    private volatile String currentEnvironment = "dev";
+    // 属性覆盖之前发布的全局快照，栈顶是最近一次；只在switchLock内访问，切换环境时清空
+    private final Deque<ConfigSnapshot> overrideHistory = new ArrayDeque<>();
+
+    // 租户覆盖配置目录及租户快照缓存
+    private final Path tenantDirectory;
+    private final TenantSnapshotCache tenantCache;
 
     @Autowired
     public DynamicConfigManager(ConfigurableEnvironment environment,
                                ApplicationEventPublisher eventPublisher,
-                               AppConfig appConfig) {
+                               AppConfig appConfig,
+                               ConfigSnapshotRegistry snapshotRegistry,
+                               DynamicConfigProperties configProperties,
+                               ConfigEventMulticaster eventMulticaster,
+                               ConfigSwitchMetrics switchMetrics) {
         this.environment = environment;
         this.eventPublisher = eventPublisher;
         this.appConfig = appConfig;
+        this.snapshotRegistry = snapshotRegistry;
+        this.switchMetrics = switchMetrics;
+
+        // 监听器在自己的线程上执行时，通过getCurrentConfig()读取到的是事件对应的快照
+        eventMulticaster.setTaskDecorator((event, task) -> event.getSnapshot() == null ? task : () -> {
+            ConfigSnapshot previous = swapTemporaryConfig(event.getSnapshot());
+            try {
+                task.run();
+            } finally {
+                swapTemporaryConfig(previous);
+            }
+        });
+
+        DynamicConfigProperties.Tenant tenant = configProperties.getTenant();
+        this.tenantDirectory = tenant.getDirectory() != null ? Paths.get(tenant.getDirectory()) : null;
+        this.tenantCache = new TenantSnapshotCache(tenant.getMaxWeight().toBytes(), tenant.getExpectedTenants(),
+                                                   this::loadTenantSnapshot, DynamicConfigManager::weighTenantSnapshot);
+
+        // 只预加载指定的环境，其余环境在首次使用时加载
+        snapshotRegistry.preload(configProperties.getPreloadEnvironments());
 
         // 初始化时加载默认环境配置
         initializeDefaultConfig();
@@ -55,9 +116,10 @@ public class DynamicConfigManager {
      * 初始化默认配置
      */
     private void initializeDefaultConfig() {
+        String defaultEnvironment = environment.getProperty("app.environment", DEFAULT_ENVIRONMENT);
         try {
-            switchEnvironment(currentEnvironment, ConfigScope.GLOBAL);
-            logger.info("初始化默认环境配置: {}", currentEnvironment);
+            switchEnvironment(defaultEnvironment, ConfigScope.GLOBAL);
+            logger.info("初始化默认环境配置: {}", defaultEnvironment);
         } catch (Exception e) {
             logger.error("初始化默认配置失败", e);
         }
@@ -81,11 +143,24 @@ public class DynamicConfigManager {
      * @return 切换是否成功
      */
     public boolean switchEnvironment(String targetEnvironment, ConfigScope scope) {
-        if (!SUPPORTED_ENVIRONMENTS.contains(targetEnvironment)) {
-            logger.warn("不支持的环境: {}，支持的环境: {}", targetEnvironment, SUPPORTED_ENVIRONMENTS);
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            success = doSwitchEnvironment(targetEnvironment, scope);
+            return success;
+        } finally {
+            switchMetrics.recordSwitch(scope, start, success);
+        }
+    }
+
+    private boolean doSwitchEnvironment(String targetEnvironment, ConfigScope scope) {
+        if (!snapshotRegistry.isSupported(targetEnvironment)) {
+            logger.warn("不支持的环境: {}，支持的环境: {}", targetEnvironment, getSupportedEnvironments());
             return false;
         }
 
+        String currentEnvironment = getCurrentEnvironment();
+
         // 对于临时配置，不需要检查是否与当前环境相同
         if (scope.isGlobal() && targetEnvironment.equals(currentEnvironment)) {
             logger.info("当前已经是目标环境: {}", targetEnvironment);
@@ -93,26 +168,27 @@ public class DynamicConfigManager {
         }
 
         try {
-            logger.info("开始切换环境: {} -> {} (作用域: {})", currentEnvironment, targetEnvironment, scope);
+            if (scope.isRequest()) {
+                // 请求级切换可能每个请求都发生，只在debug级别记录
+                logger.debug("开始切换环境: {} -> {} (作用域: {})", currentEnvironment, targetEnvironment, scope);
+            } else {
+                logger.info("开始切换环境: {} -> {} (作用域: {})", currentEnvironment, targetEnvironment, scope);
+            }
 
-            // 加载新的配置文件
-            Properties newProperties = loadConfigProperties(targetEnvironment);
-            if (newProperties == null) {
+            // 获取缓存的环境快照（未缓存时加载一次）
+            ConfigSnapshot targetSnapshot = snapshotRegistry.get(targetEnvironment);
+            if (targetSnapshot == null) {
                 logger.error("加载配置文件失败: config-{}.properties", targetEnvironment);
                 return false;
             }
 
             if (scope.isGlobal()) {
-                // 全局修改：需要加锁
-                lock.writeLock().lock();
-                try {
-                    return performGlobalSwitch(targetEnvironment, newProperties);
-                } finally {
-                    lock.writeLock().unlock();
-                }
+                return publishGlobal(targetSnapshot);
+            } else if (scope.isRequest()) {
+                return performRequestSwitch(targetSnapshot);
             } else {
-                // 临时修改：不需要加锁，只影响当前线程
-                return performTemporarySwitch(targetEnvironment, newProperties);
+                // 临时修改：不修改共享Environment，只影响当前线程；切换锁只用于分配版本号和事件入队
+                return performTemporarySwitch(targetSnapshot);
             }
 
         } catch (Exception e) {
@@ -122,98 +198,361 @@ public class DynamicConfigManager {
     }
 
     /**
-     * 执行全局配置切换
+     * 重新加载环境配置
+     * 在调用线程上重新解析该环境的配置文件，如果它是当前生效的全局环境则发布新快照；
+     * 解析期间不持有锁，请求线程的读取不受影响
+     *
+     * @param env 环境名称
+     * @return 重新加载是否成功
      */
-    private boolean performGlobalSwitch(String targetEnvironment, Properties newProperties) {
-        try {
-            // 移除旧的动态配置源
-            removeDynamicConfigSource();
+    public boolean reloadEnvironment(String env) {
+        ConfigSnapshot reloaded = snapshotRegistry.reload(env);
+
+        // 基于该环境的租户快照在下次访问时重新加载
+        int invalidated = tenantCache.invalidateIf(snapshot -> env.equals(snapshot.getEnvironment()));
+        if (invalidated > 0) {
+            logger.info("环境 {} 重新加载，清除 {} 个租户快照", env, invalidated);
+        }
+        if (reloaded == null) {
+            if (env.equals(getCurrentEnvironment())) {
+                logger.warn("当前环境 {} 重新加载失败，继续使用原有配置", env);
+            }
+            return false;
+        }
 
-            // 添加新的配置源
-            addDynamicConfigSource(newProperties);
+        ConfigSnapshot baseSnapshot = currentSnapshot;
+        if (baseSnapshot == null || !env.equals(baseSnapshot.getEnvironment())) {
+            logger.debug("环境 {} 不是当前全局环境，只更新缓存", env);
+            return true;
+        }
+
+        // 在锁外按当前快照的属性覆盖预先叠加和计算差异，锁内确认期间没有其他切换或覆盖后再发布
+        ConfigSnapshot targetSnapshot = withOverridesOf(baseSnapshot, reloaded);
+        Set<String> changedKeys = targetSnapshot != null ? diff(baseSnapshot, targetSnapshot) : null;
 
-            // 直接刷新配置实例
-            refreshConfigInstance();
+        lockForSwitch();
+        try {
+            if (currentSnapshot != baseSnapshot) {
+                baseSnapshot = currentSnapshot;
+                if (!env.equals(baseSnapshot.getEnvironment())) {
+                    return true;
+                }
+                // 期间有新的属性覆盖或回滚，按最新快照的覆盖重新叠加，避免丢失
+                targetSnapshot = withOverridesOf(baseSnapshot, reloaded);
+                changedKeys = targetSnapshot != null ? diff(baseSnapshot, targetSnapshot) : null;
+            }
+            if (targetSnapshot == null) {
+                logger.warn("属性覆盖无法叠加到重新加载的环境 {}，继续使用原有配置", env);
+                return false;
+            }
+            // 回滚历史基于原来的环境快照，重新加载后不再适用
+            overrideHistory.clear();
+            return performGlobalSwitch(targetSnapshot, changedKeys);
+        } finally {
+            switchLock.unlock();
+            flushEvents();
+        }
+    }
 
-            // 更新当前环境
-            String oldEnvironment = currentEnvironment;
-            currentEnvironment = targetEnvironment;
+    /**
+     * 把快照中生效的属性覆盖叠加到重新加载的环境上
+     *
+     * @return 叠加后的快照，没有覆盖时返回reloaded，叠加失败时返回null
+     */
+    private ConfigSnapshot withOverridesOf(ConfigSnapshot snapshot, ConfigSnapshot reloaded) {
+        Map<String, String> overrides = overridesOf(snapshot);
+        return overrides.isEmpty() ? reloaded
+                : snapshotRegistry.createOverlaySnapshot(reloaded.getEnvironment(), overrides);
+    }
 
-            // 发布环境切换事件
-            publishEnvironmentChangeEvent(oldEnvironment, targetEnvironment, ConfigScope.GLOBAL);
+    /**
+     * 环境是否已缓存或是当前全局环境
+     * 两者都不是时配置文件变化只需更新索引，首次使用时才会解析
+     */
+    public boolean isEnvironmentInUse(String env) {
+        return snapshotRegistry.isLoaded(env) || env.equals(getCurrentEnvironment());
+    }
 
-            logger.info("全局环境切换成功: {} -> {}", oldEnvironment, targetEnvironment);
-            return true;
+    /**
+     * 发布全局快照
+     * 在锁外预先计算差异，锁内只做属性源替换和快照发布
+     */
+    private boolean publishGlobal(ConfigSnapshot targetSnapshot) {
+        ConfigSnapshot baseSnapshot = currentSnapshot;
+        Set<String> changedKeys = diff(baseSnapshot, targetSnapshot);
 
-        } catch (Exception e) {
-            logger.error("全局环境切换失败", e);
-            throw e;
+        lockForSwitch();
+        try {
+            if (currentSnapshot != baseSnapshot) {
+                // 期间有其他线程完成了切换，按最新快照重新计算
+                changedKeys = diff(currentSnapshot, targetSnapshot);
+            }
+            // 回滚历史基于原来的环境快照，切换后不再适用
+            overrideHistory.clear();
+            return performGlobalSwitch(targetSnapshot, changedKeys);
+        } finally {
+            switchLock.unlock();
+            flushEvents();
         }
     }
 
     /**
-     * 执行临时配置切换
+     * 批量覆盖当前全局环境的配置项
+     * 覆盖层叠加在当前环境之上（与已有的覆盖合并），绑定完成后作为一个新快照整体发布，
+     * 读取方要么看到整批覆盖之前的配置，要么看到之后的配置
+     *
+     * @param overrides 配置项及新值，键可以是宽松写法，按规范键合并
+     * @return 是否成功，绑定失败（如值无法转换为目标类型）时不发布
+     * @throws IllegalArgumentException 键不是AppConfig的配置项，或值为null
      */
-    private boolean performTemporarySwitch(String targetEnvironment, Properties newProperties) {
+    public boolean applyOverrides(Map<String, String> overrides) {
+        if (overrides == null || overrides.isEmpty()) {
+            return false;
+        }
+        Map<String, String> normalized = normalizeOverrides(overrides);
+
+        lockForSwitch();
         try {
-            // 创建临时配置实例
-            AppConfig tempConfig = createTemporaryConfig(newProperties);
+            ConfigSnapshot baseSnapshot = currentSnapshot;
+            if (baseSnapshot == null) {
+                return false;
+            }
 
-            // 设置到当前线程的ThreadLocal
-            temporaryConfig.set(tempConfig);
+            Map<String, String> layered = new LinkedHashMap<>(overridesOf(baseSnapshot));
+            layered.putAll(normalized);
+            ConfigSnapshot targetSnapshot =
+                    snapshotRegistry.createOverlaySnapshot(baseSnapshot.getEnvironment(), layered);
+            if (targetSnapshot == null) {
+                logger.warn("属性覆盖失败: {}", overrides.keySet());
+                return false;
+            }
 
-            // 发布临时配置切换事件
-            publishEnvironmentChangeEvent(currentEnvironment, targetEnvironment, ConfigScope.TEMPORARY);
+            pushOverrideHistory(baseSnapshot);
+            performGlobalSwitch(targetSnapshot, overrideDiff(baseSnapshot, targetSnapshot));
+            logger.info("应用属性覆盖: {} (环境: {})", overrides.keySet(), baseSnapshot.getEnvironment());
+            return true;
+        } finally {
+            switchLock.unlock();
+            flushEvents();
+        }
+    }
 
-            logger.info("临时环境切换成功: {} -> {} (线程: {})",
-                       currentEnvironment, targetEnvironment, Thread.currentThread().getId());
+    /**
+     * 校验覆盖项并转换为规范键，整批校验通过后才进入切换锁
+     */
+    private static Map<String, String> normalizeOverrides(Map<String, String> overrides) {
+        Map<String, String> normalized = new LinkedHashMap<>();
+        List<String> unknownKeys = new ArrayList<>();
+        List<String> nullValues = new ArrayList<>();
+        for (Map.Entry<String, String> entry : overrides.entrySet()) {
+            String key = AppConfigBinder.canonicalKey(entry.getKey());
+            if (key == null) {
+                unknownKeys.add(entry.getKey());
+            } else if (entry.getValue() == null) {
+                nullValues.add(entry.getKey());
+            } else {
+                normalized.put(key, entry.getValue());
+            }
+        }
+        if (!unknownKeys.isEmpty()) {
+            throw new IllegalArgumentException("未知的配置项: " + unknownKeys);
+        }
+        if (!nullValues.isEmpty()) {
+            throw new IllegalArgumentException("配置项的值不能为null: " + nullValues);
+        }
+        return normalized;
+    }
+
+    /**
+     * 清除当前全局环境的所有属性覆盖，可以通过rollbackOverrides撤销
+     *
+     * @return 是否存在属性覆盖
+     */
+    public boolean clearOverrides() {
+        lockForSwitch();
+        try {
+            ConfigSnapshot baseSnapshot = currentSnapshot;
+            if (baseSnapshot == null || overridesOf(baseSnapshot).isEmpty()) {
+                return false;
+            }
+            ConfigSnapshot targetSnapshot = snapshotRegistry.get(baseSnapshot.getEnvironment());
+            if (targetSnapshot == null) {
+                return false;
+            }
+
+            pushOverrideHistory(baseSnapshot);
+            performGlobalSwitch(targetSnapshot, overrideDiff(baseSnapshot, targetSnapshot));
+            logger.info("清除属性覆盖 (环境: {})", baseSnapshot.getEnvironment());
             return true;
+        } finally {
+            switchLock.unlock();
+            flushEvents();
+        }
+    }
 
-        } catch (Exception e) {
-            logger.error("临时环境切换失败", e);
-            throw e;
+    /**
+     * 回滚到上一次属性覆盖之前的全局快照
+     * 直接重新发布保存的快照，不重新读取和绑定
+     *
+     * @return 是否存在可回滚的历史
+     */
+    public boolean rollbackOverrides() {
+        lockForSwitch();
+        try {
+            ConfigSnapshot previous = overrideHistory.pollFirst();
+            if (previous == null) {
+                return false;
+            }
+            ConfigSnapshot baseSnapshot = currentSnapshot;
+            performGlobalSwitch(previous, overrideDiff(baseSnapshot, previous));
+            logger.info("回滚属性覆盖到版本 {} (环境: {})", previous.getVersion(), previous.getEnvironment());
+            return true;
+        } finally {
+            switchLock.unlock();
+            flushEvents();
         }
     }
 
     /**
-     * 创建临时配置实例
+     * 当前全局环境生效的属性覆盖
      */
-    private AppConfig createTemporaryConfig(Properties properties) {
-        // 临时添加配置源
-        PropertiesPropertySource tempSource = new PropertiesPropertySource("tempConfigSource", properties);
-        environment.getPropertySources().addFirst(tempSource);
+    public Map<String, String> getActiveOverrides() {
+        ConfigSnapshot snapshot = currentSnapshot;
+        return snapshot != null ? overridesOf(snapshot) : Collections.emptyMap();
+    }
 
+    /**
+     * 可回滚的历史数量
+     */
+    public int getOverrideHistorySize() {
+        switchLock.lock();
         try {
-            // 使用Binder创建新的配置实例
-            Binder binder = Binder.get(environment);
-            return binder.bind("app", AppConfig.class)
-                        .orElseThrow(() -> new RuntimeException("无法绑定临时配置"));
+            return overrideHistory.size();
         } finally {
-            // 移除临时配置源
-            environment.getPropertySources().remove("tempConfigSource");
+            switchLock.unlock();
+        }
+    }
+
+    private void pushOverrideHistory(ConfigSnapshot snapshot) {
+        overrideHistory.addFirst(snapshot);
+        if (overrideHistory.size() > MAX_OVERRIDE_HISTORY) {
+            overrideHistory.removeLast();
         }
     }
 
+    private static Map<String, String> overridesOf(ConfigSnapshot snapshot) {
+        Map<String, String> properties = snapshot.getProperties();
+        return properties instanceof OverlayProperties
+                ? ((OverlayProperties) properties).getOverlay() : Collections.emptyMap();
+    }
+
     /**
-     * 加载配置文件属性
+     * 计算属性覆盖前后变化的配置项
+     * 两个快照基于同一份环境属性时，覆盖层只含AppConfig的配置项，只需比较绑定结果
+     * （覆盖的值可能被其他配置项通过占位符引用，不能只看覆盖层中的键）
      */
-    private Properties loadConfigProperties(String env) {
-        String configFileName = "config-" + env + ".properties";
-        ClassPathResource resource = new ClassPathResource(configFileName);
-        
-        if (!resource.exists()) {
-            logger.error("配置文件不存在: {}", configFileName);
-            return null;
+    private Set<String> overrideDiff(ConfigSnapshot oldSnapshot, ConfigSnapshot newSnapshot) {
+        if (baseOf(oldSnapshot) != baseOf(newSnapshot)) {
+            return diff(oldSnapshot, newSnapshot);
         }
+        return ConfigDiff.changedKeys(oldSnapshot.getStore(), newSnapshot.getStore());
+    }
 
-        Properties properties = new Properties();
+    private static Map<String, String> baseOf(ConfigSnapshot snapshot) {
+        Map<String, String> properties = snapshot.getProperties();
+        return properties instanceof OverlayProperties ? ((OverlayProperties) properties).getBase() : properties;
+    }
+
+    /**
+     * 获取切换锁并记录等待时间
+     */
+    private void lockForSwitch() {
+        long start = System.nanoTime();
+        switchLock.lock();
+        switchMetrics.recordLockWait(start);
+    }
+
+    /**
+     * 执行全局配置切换
+     */
+    private boolean performGlobalSwitch(ConfigSnapshot targetSnapshot, Set<String> changedKeys) {
         try {
-            properties.load(resource.getInputStream());
-            logger.debug("成功加载配置文件: {}，包含 {} 个配置项", configFileName, properties.size());
-            return properties;
-        } catch (IOException e) {
-            logger.error("读取配置文件失败: {}", configFileName, e);
-            return null;
+            String targetEnvironment = targetSnapshot.getEnvironment();
+
+            // 替换动态配置源
+            long phaseStart = System.nanoTime();
+            removeDynamicConfigSource();
+            addDynamicConfigSource(targetSnapshot.getProperties());
+            switchMetrics.recordPhase(ConfigSwitchMetrics.Phase.PROPERTY_SOURCE, phaseStart);
+
+            // 以新版本号整体发布缓存的快照
+            String oldEnvironment = currentSnapshot != null ? currentSnapshot.getEnvironment() : null;
+            currentSnapshot = targetSnapshot.withVersion(versionSequence.incrementAndGet());
+
+            // 同步刷新直接注入的AppConfig实例中发生变化的配置项，兼容未通过getCurrentConfig()读取的代码
+            phaseStart = System.nanoTime();
+            updateConfigInstance(targetSnapshot.getConfig(), changedKeys);
+            switchMetrics.recordPhase(ConfigSwitchMetrics.Phase.INSTANCE_UPDATE, phaseStart);
+
+            // 未指定tenant.environment的租户以全局环境为基础，全局环境变化后重新加载
+            if (!targetEnvironment.equals(oldEnvironment)) {
+                int invalidated = tenantCache.invalidateIf(DynamicConfigManager::inheritsGlobalEnvironment);
+                if (invalidated > 0) {
+                    logger.info("全局环境变化，清除 {} 个继承全局环境的租户快照", invalidated);
+                }
+            }
+
+            // 事件在释放切换锁后发布
+            publishEnvironmentChangeEvent(oldEnvironment, targetEnvironment, ConfigScope.GLOBAL, changedKeys,
+                                          currentSnapshot);
+
+            logger.info("全局环境切换成功: {} -> {}", oldEnvironment, targetEnvironment);
+            return true;
+
+        } catch (Exception e) {
+            logger.error("全局环境切换失败", e);
+            throw e;
+        }
+    }
+
+    /**
+     * 执行临时配置切换
+     * 版本号与全局切换在同一把锁内分配并入队，事件按版本顺序发布
+     */
+    private boolean performTemporarySwitch(ConfigSnapshot targetSnapshot) {
+        try {
+            String targetEnvironment = targetSnapshot.getEnvironment();
+
+            // 差异在锁外预先计算，锁内只分配版本号和入队
+            ConfigSnapshot globalSnapshot = currentSnapshot;
+            Set<String> changedKeys = diff(globalSnapshot, targetSnapshot);
+            ConfigSnapshot temporarySnapshot;
+            String currentEnvironment;
+            lockForSwitch();
+            try {
+                if (currentSnapshot != globalSnapshot) {
+                    globalSnapshot = currentSnapshot;
+                    changedKeys = diff(globalSnapshot, targetSnapshot);
+                }
+                currentEnvironment = globalSnapshot != null ? globalSnapshot.getEnvironment() : null;
+                temporarySnapshot = targetSnapshot.withVersion(versionSequence.incrementAndGet());
+                publishEnvironmentChangeEvent(currentEnvironment, targetEnvironment, ConfigScope.TEMPORARY,
+                                              changedKeys, temporarySnapshot);
+            } finally {
+                switchLock.unlock();
+            }
+
+            // 直接复用缓存的快照，设置到当前线程的ThreadLocal
+            temporaryConfig.set(temporarySnapshot);
+            flushEvents();
+
+            logger.info("临时环境切换成功: {} -> {} (线程: {})",
+                       currentEnvironment, targetEnvironment, Thread.currentThread().getId());
+            return true;
+
+        } catch (Exception e) {
+            logger.error("临时环境切换失败", e);
+            throw e;
         }
     }
 
@@ -230,9 +569,9 @@ public class DynamicConfigManager {
     /**
      * 添加动态配置源
      */
-    private void addDynamicConfigSource(Properties properties) {
-        PropertiesPropertySource propertySource = new PropertiesPropertySource(
-            DYNAMIC_CONFIG_SOURCE_NAME, properties);
+    private void addDynamicConfigSource(Map<String, String> properties) {
+        MapPropertySource propertySource = new MapPropertySource(
+            DYNAMIC_CONFIG_SOURCE_NAME, Collections.<String, Object>unmodifiableMap(properties));
         
         // 将动态配置源添加到最高优先级
         environment.getPropertySources().addFirst(propertySource);
@@ -240,122 +579,340 @@ public class DynamicConfigManager {
     }
 
     /**
-     * 直接刷新配置实例
-     * 使用Binder重新绑定配置属性到现有的AppConfig实例
+     * 更新配置实例中发生变化的属性
      */
-    private void refreshConfigInstance() {
-        try {
-            // 使用Spring Boot的Binder重新绑定配置
-            Binder binder = Binder.get(environment);
+    private void updateConfigInstance(AppConfig newConfig, Set<String> changedKeys) {
+        int updated = AppConfigBinder.copy(newConfig, appConfig, changedKeys);
+        logger.debug("配置实例属性更新完成，更新 {} 个配置项", updated);
+    }
 
-            // 重新绑定配置到现有的AppConfig实例
-            binder.bind("app", AppConfig.class).ifBound(newConfig -> {
-                // 直接更新现有实例的属性
-                updateConfigInstance(newConfig);
-                logger.debug("成功刷新配置实例，所有引用将自动获得新值");
-            });
+    /**
+     * 计算两个快照之间发生变化的配置项
+     * AppConfig的配置项按绑定后的值比较，占位符引用的配置项变化时同样计入
+     */
+    private Set<String> diff(ConfigSnapshot oldSnapshot, ConfigSnapshot newSnapshot) {
+        if (oldSnapshot == null) {
+            return ConfigDiff.changedKeys(Collections.emptyMap(), newSnapshot.getProperties());
+        }
+        return ConfigDiff.changedKeys(oldSnapshot.getProperties(), oldSnapshot.getStore(),
+                                      newSnapshot.getProperties(), newSnapshot.getStore());
+    }
 
-        } catch (Exception e) {
-            logger.error("刷新配置实例失败", e);
-            throw new RuntimeException("配置刷新失败", e);
+    /**
+     * 发布环境切换事件（携带变化的配置项和切换后的快照）
+     * 事件先进入待发布队列，由调用方在释放切换锁后通过flushEvents()发布
+     */
+    private void publishEnvironmentChangeEvent(String oldEnv, String newEnv, ConfigScope scope,
+                                               Set<String> changedKeys, ConfigSnapshot snapshot) {
+        pendingEvents.add(new EnvironmentChangeEvent(this, oldEnv, newEnv, scope, changedKeys, snapshot));
+    }
+
+    /**
+     * 按入队顺序发布待发布的事件
+     * 同一时间只有一个线程（发布方）在发布，其他线程的事件已在队列中，由当前发布方依次发布后直接返回；
+     * 发布期间不持有任何锁，发布方在BLOCK策略下等待监听器队列时，监听器在自己的线程上触发的切换不会被阻塞
+     */
+    private void flushEvents() {
+        // 发布方退出前队列可能又有新事件，而入队的线程看到有发布方已经返回，需要再检查一次
+        while (!pendingEvents.isEmpty() && publishing.compareAndSet(false, true)) {
+            try {
+                EnvironmentChangeEvent event;
+                while ((event = pendingEvents.poll()) != null) {
+                    long start = System.nanoTime();
+                    eventPublisher.publishEvent(event);
+                    switchMetrics.recordPhase(ConfigSwitchMetrics.Phase.EVENT_PUBLISH, start);
+                    logger.debug("发布环境切换事件: {} -> {} (作用域: {}, 版本: {}, 变化分组: {})",
+                                event.getOldEnvironment(), event.getNewEnvironment(), event.getScope(),
+                                event.getVersion(), event.getChangedSections());
+                }
+            } finally {
+                publishing.set(false);
+            }
         }
     }
 
     /**
-     * 更新配置实例的所有属性
+     * 获取当前环境
+     * 直接读取当前快照，无需加锁
+     */
+    public String getCurrentEnvironment() {
+        ConfigSnapshot snapshot = currentSnapshot;
+        return snapshot != null ? snapshot.getEnvironment() : null;
+    }
+
+    /**
+     * 获取支持的环境列表
      */
-    private void updateConfigInstance(AppConfig newConfig) {
-        // 更新数据库配置
-        appConfig.getDatabase().setUrl(newConfig.getDatabase().getUrl());
-        appConfig.getDatabase().setUsername(newConfig.getDatabase().getUsername());
-        appConfig.getDatabase().setPassword(newConfig.getDatabase().getPassword());
-        appConfig.getDatabase().getPool().setMaxSize(newConfig.getDatabase().getPool().getMaxSize());
+    public Set<String> getSupportedEnvironments() {
+        return snapshotRegistry.getSupportedEnvironments();
+    }
 
-        // 更新Redis配置
-        appConfig.getRedis().setHost(newConfig.getRedis().getHost());
-        appConfig.getRedis().setPort(newConfig.getRedis().getPort());
-        appConfig.getRedis().setDatabase(newConfig.getRedis().getDatabase());
+    /**
+     * 执行请求级配置切换
+     * 每个请求都可能切换，因此不发布事件，也不计算差异
+     */
+    private boolean performRequestSwitch(ConfigSnapshot targetSnapshot) {
+        requestConfig.set(targetSnapshot.withVersion(versionSequence.incrementAndGet()));
+        logger.debug("请求级环境切换: {} (线程: {})", targetSnapshot.getEnvironment(), Thread.currentThread().getId());
+        return true;
+    }
 
-        // 更新API配置
-        appConfig.getApi().setBaseUrl(newConfig.getApi().getBaseUrl());
-        appConfig.getApi().setTimeout(newConfig.getApi().getTimeout());
-        appConfig.getApi().setRetryCount(newConfig.getApi().getRetryCount());
+    /**
+     * 移除当前线程的覆盖配置，ThreadLocal条目一并删除
+     *
+     * @return 是否存在覆盖配置
+     */
+    private boolean clearOverride(ThreadLocal<ConfigSnapshot> holder) {
+        ConfigSnapshot previous = holder.get();
+        holder.remove();
+        return previous != null;
+    }
 
-        // 更新功能开关配置
-        appConfig.getFeature().setEnableCache(newConfig.getFeature().isEnableCache());
-        appConfig.getFeature().setEnableDebug(newConfig.getFeature().isEnableDebug());
-        appConfig.getFeature().setEnableMonitoring(newConfig.getFeature().isEnableMonitoring());
+    /**
+     * 替换当前线程的临时配置，snapshot为null时移除
+     * 供ConfigContext在任务执行期间绑定调用方的快照，结束后再换回原值
+     *
+     * @return 原来的临时配置
+     */
+    ConfigSnapshot swapTemporaryConfig(ConfigSnapshot snapshot) {
+        return swapOverride(temporaryConfig, snapshot);
+    }
 
-        // 更新通知配置
-        appConfig.getNotification().getEmail().setEnabled(newConfig.getNotification().getEmail().isEnabled());
-        appConfig.getNotification().getSms().setEnabled(newConfig.getNotification().getSms().isEnabled());
+    /**
+     * 替换当前线程的请求级配置，snapshot为null时移除
+     * 请求级配置优先于临时配置，ConfigContext绑定快照期间需要先把它换下
+     *
+     * @return 原来的请求级配置
+     */
+    ConfigSnapshot swapRequestConfig(ConfigSnapshot snapshot) {
+        return swapOverride(requestConfig, snapshot);
+    }
 
-        logger.debug("配置实例属性更新完成");
+    private ConfigSnapshot swapOverride(ThreadLocal<ConfigSnapshot> holder, ConfigSnapshot snapshot) {
+        ConfigSnapshot previous = holder.get();
+        if (snapshot != null) {
+            holder.set(snapshot);
+        } else if (previous != null) {
+            holder.remove();
+        }
+        return previous;
     }
 
     /**
-     * 发布环境切换事件（默认全局作用域）
+     * 当前线程的覆盖配置（请求级优先于临时配置），没有任何覆盖时返回null
      */
-    private void publishEnvironmentChangeEvent(String oldEnv, String newEnv) {
-        publishEnvironmentChangeEvent(oldEnv, newEnv, ConfigScope.GLOBAL);
+    ConfigSnapshot currentOverride() {
+        return threadOverride();
     }
 
     /**
-     * 发布环境切换事件（指定作用域）
+     * 当前线程的覆盖配置（请求级优先于临时配置）
+     * 只查找本线程的ThreadLocal，不读写任何跨线程共享的状态
      */
-    private void publishEnvironmentChangeEvent(String oldEnv, String newEnv, ConfigScope scope) {
-        EnvironmentChangeEvent event = new EnvironmentChangeEvent(this, oldEnv, newEnv, scope);
-        eventPublisher.publishEvent(event);
-        logger.debug("发布环境切换事件: {} -> {} (作用域: {})", oldEnv, newEnv, scope);
+    private ConfigSnapshot threadOverride() {
+        ConfigSnapshot snapshot = requestConfig.get();
+        return snapshot != null ? snapshot : temporaryConfig.get();
     }
 
     /**
-     * 获取当前环境
+     * 获取当前有效的配置（请求级、临时配置优先）
+     * 返回的是某个快照中的完整配置，不会出现新旧环境混合的值
      */
-    public String getCurrentEnvironment() {
-        lock.readLock().lock();
-        try {
-            return currentEnvironment;
-        } finally {
-            lock.readLock().unlock();
+    public AppConfig getCurrentConfig() {
+        ConfigSnapshot tempSnapshot = threadOverride();
+        if (tempSnapshot != null) {
+            return tempSnapshot.getConfig();
         }
+        ConfigSnapshot snapshot = currentSnapshot;
+        return snapshot != null ? snapshot.getConfig() : appConfig;
     }
 
     /**
-     * 获取支持的环境列表
+     * 获取租户的配置快照
+     * 租户快照 = 基础环境 + 租户覆盖配置，按租户缓存，容量受 dynamic-config.tenant.max-weight 限制
+     *
+     * @return 租户快照，租户不存在或加载失败时返回null
      */
-    public Set<String> getSupportedEnvironments() {
-        return SUPPORTED_ENVIRONMENTS;
+    public ConfigSnapshot getTenantSnapshot(String tenantId) {
+        return tenantCache.get(tenantId);
     }
 
     /**
-     * 获取当前有效的配置（临时配置优先）
+     * 获取租户的配置，租户不存在时返回当前有效配置
      */
-    public AppConfig getCurrentConfig() {
-        AppConfig tempConfig = temporaryConfig.get();
-        return tempConfig != null ? tempConfig : appConfig;
+    public AppConfig getTenantConfig(String tenantId) {
+        ConfigSnapshot snapshot = getTenantSnapshot(tenantId);
+        return snapshot != null ? snapshot.getConfig() : getCurrentConfig();
+    }
+
+    /**
+     * 清除租户的缓存快照，下次访问时重新加载
+     */
+    public boolean invalidateTenant(String tenantId) {
+        return tenantCache.invalidate(tenantId);
+    }
+
+    /**
+     * 获取租户快照缓存统计信息
+     */
+    public Map<String, Object> getTenantCacheStatistics() {
+        return tenantCache.getStatistics();
+    }
+
+    /**
+     * 加载租户快照（缓存未命中时调用）
+     */
+    private ConfigSnapshot loadTenantSnapshot(String tenantId) {
+        // 租户ID与环境名使用相同的字符规则，防止路径穿越
+        if (tenantDirectory == null || !ConfigEnvironmentIndex.ENVIRONMENT_NAME.matcher(tenantId).matches()) {
+            return null;
+        }
+
+        Path file = tenantDirectory.resolve(tenantId + ConfigEnvironmentIndex.FILE_SUFFIX);
+        if (!Files.isRegularFile(file)) {
+            logger.debug("租户覆盖配置不存在: {}", file);
+            return null;
+        }
+
+        Map<String, String> overlay = snapshotRegistry.readOverlay(file);
+        if (overlay == null) {
+            return null;
+        }
+        String baseEnvironment = overlay.getOrDefault(TENANT_ENVIRONMENT_KEY, getCurrentEnvironment());
+        if (baseEnvironment == null || !snapshotRegistry.isSupported(baseEnvironment)) {
+            logger.warn("租户 {} 的基础环境不存在: {}", tenantId, baseEnvironment);
+            return null;
+        }
+        return snapshotRegistry.createOverlaySnapshot(baseEnvironment, overlay);
+    }
+
+    /**
+     * 租户覆盖配置中没有tenant.environment，基础环境取自加载时的全局环境
+     */
+    private static boolean inheritsGlobalEnvironment(ConfigSnapshot tenantSnapshot) {
+        return tenantSnapshot.getProperties() instanceof OverlayProperties
+                && !((OverlayProperties) tenantSnapshot.getProperties()).getOverlay().containsKey(TENANT_ENVIRONMENT_KEY);
+    }
+
+    /**
+     * 估算租户快照占用的内存：固定开销 + 覆盖层的键值（基础环境的属性由所有租户共享，不计入）
+     */
+    private static long weighTenantSnapshot(ConfigSnapshot snapshot) {
+        long weight = TENANT_SNAPSHOT_OVERHEAD;
+        if (snapshot.getProperties() instanceof OverlayProperties) {
+            for (Map.Entry<String, String> entry : ((OverlayProperties) snapshot.getProperties()).getOverlay().entrySet()) {
+                weight += 32 + ConfigValuePool.estimateSize(entry.getKey()) + ConfigValuePool.estimateSize(entry.getValue());
+            }
+        }
+        return weight;
+    }
+
+    /**
+     * 创建配置项句柄，句柄总会创建成功；配置项不存在时，句柄的get()返回null（没有默认值）
+     * 句柄应在启动时创建一次并复用
+     */
+    public <T> ConfigKey<T> key(String key, Class<T> type) {
+        return key(key, type, null);
+    }
+
+    /**
+     * 创建带默认值的配置项句柄，配置项不存在时句柄的get()返回defaultValue
+     */
+    public <T> ConfigKey<T> key(String key, Class<T> type, T defaultValue) {
+        return new ConfigKey<>(key, type, defaultValue, this);
+    }
+
+    /**
+     * 按快照自身的属性解析占位符，供ConfigKey首次解析值时使用
+     */
+    String resolvePlaceholders(ConfigSnapshot snapshot, String text) {
+        return text.contains("${") ? snapshotRegistry.resolvePlaceholders(snapshot, text) : text;
+    }
+
+    /**
+     * 获取当前有效的扁平配置存储（临时配置优先）
+     * 配合ConfigStoreLayout解析出的槽位使用，读取时不做哈希查找也不装箱
+     */
+    public ConfigStore getCurrentStore() {
+        ConfigSnapshot snapshot = getCurrentSnapshot();
+        return snapshot != null ? snapshot.getStore() : ConfigStore.from(appConfig);
+    }
+
+    /**
+     * 获取当前有效的配置快照（请求级、临时配置优先）
+     */
+    public ConfigSnapshot getCurrentSnapshot() {
+        ConfigSnapshot tempSnapshot = threadOverride();
+        return tempSnapshot != null ? tempSnapshot : currentSnapshot;
+    }
+
+    /**
+     * 获取当前全局配置快照
+     */
+    public ConfigSnapshot getGlobalSnapshot() {
+        return currentSnapshot;
     }
 
     /**
      * 获取当前环境的配置属性
+     * 从当前快照复制，不读取文件也不加锁，返回的Properties可由调用方自由修改
      */
     public Properties getCurrentProperties() {
-        lock.readLock().lock();
-        try {
-            return loadConfigProperties(currentEnvironment);
-        } finally {
-            lock.readLock().unlock();
-        }
+        Properties properties = new Properties();
+        properties.putAll(getCurrentPropertyMap());
+        return properties;
+    }
+
+    /**
+     * 获取当前环境的配置属性（只读视图，无复制）
+     */
+    public Map<String, String> getCurrentPropertyMap() {
+        ConfigSnapshot snapshot = currentSnapshot;
+        return snapshot != null ? snapshot.getProperties() : Collections.emptyMap();
     }
 
     /**
      * 清除当前线程的临时配置
      */
     public void clearTemporaryConfig() {
-        temporaryConfig.remove();
+        clearOverride(temporaryConfig);
         logger.info("清除线程 {} 的临时配置", Thread.currentThread().getId());
     }
 
+    /**
+     * 按环境名称查找快照，供请求过滤器使用
+     * 已缓存的环境只有一次ConcurrentHashMap查找，不分配对象；未缓存时加载一次
+     * 环境名来自请求，只对照内存索引，未知的名称不会访问文件系统
+     *
+     * @return 快照，环境不存在时返回null
+     */
+    public ConfigSnapshot resolveSnapshot(String env) {
+        if (env == null) {
+            return null;
+        }
+        ConfigSnapshot snapshot = snapshotRegistry.getIfLoaded(env);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        return snapshotRegistry.isIndexed(env) ? snapshotRegistry.get(env) : null;
+    }
+
+    /**
+     * 为当前请求绑定已缓存的环境快照（REQUEST作用域）
+     * 与switchEnvironment(env, REQUEST)不同，不生成新版本、不记录日志，适合每个请求都调用
+     */
+    public void bindRequestSnapshot(ConfigSnapshot snapshot) {
+        requestConfig.set(snapshot);
+    }
+
+    /**
+     * 清除当前线程的请求级配置（请求结束时由过滤器调用）
+     * 移除ThreadLocal条目，不在池化的请求线程上残留对快照的引用
+     */
+    public void clearRequestConfig() {
+        clearOverride(requestConfig);
+    }
+
     /**
      * 检查当前线程是否有临时配置
      */
@@ -363,12 +920,20 @@ public class DynamicConfigManager {
         return temporaryConfig.get() != null;
     }
 
+    /**
+     * 检查当前线程是否有请求级配置
+     */
+    public boolean hasRequestConfig() {
+        return requestConfig.get() != null;
+    }
+
     /**
      * 获取临时配置统计信息
      */
     public Map<String, Object> getTemporaryConfigStatistics() {
         Map<String, Object> stats = new HashMap<>();
         stats.put("hasTemporaryConfig", hasTemporaryConfig());
+        stats.put("hasRequestConfig", hasRequestConfig());
         stats.put("threadId", Thread.currentThread().getId());
         stats.put("threadName", Thread.currentThread().getName());
         return stats;
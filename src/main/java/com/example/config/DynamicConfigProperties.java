@@ -0,0 +1,322 @@
+package com.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 动态配置管理器自身的配置
+ * 与业务配置AppConfig分开，使用dynamic-config前缀
+ */
+@Component
+@ConfigurationProperties(prefix = "dynamic-config")
+public class DynamicConfigProperties {
+
+    /**
+     * 外部配置目录，目录下的config-*.properties会覆盖classpath中的同名环境
+     */
+    private String configDirectory;
+
+    /**
+     * 启动时预加载的环境，其余环境在首次使用时加载
+     */
+    private List<String> preloadEnvironments = new ArrayList<>();
+
+    /**
+     * 配置文件加载方式，超大的外部环境文件可使用mapped
+     */
+    private Loader loader = Loader.PROPERTIES;
+
+    private Watch watch = new Watch();
+
+    private Tenant tenant = new Tenant();
+
+    private Request request = new Request();
+
+    private Events events = new Events();
+
+    public String getConfigDirectory() {
+        return configDirectory;
+    }
+
+    public void setConfigDirectory(String configDirectory) {
+        this.configDirectory = configDirectory;
+    }
+
+    public List<String> getPreloadEnvironments() {
+        return preloadEnvironments;
+    }
+
+    public void setPreloadEnvironments(List<String> preloadEnvironments) {
+        this.preloadEnvironments = preloadEnvironments;
+    }
+
+    public Loader getLoader() {
+        return loader;
+    }
+
+    public void setLoader(Loader loader) {
+        this.loader = loader;
+    }
+
+    public Watch getWatch() {
+        return watch;
+    }
+
+    public void setWatch(Watch watch) {
+        this.watch = watch;
+    }
+
+    public Tenant getTenant() {
+        return tenant;
+    }
+
+    public void setTenant(Tenant tenant) {
+        this.tenant = tenant;
+    }
+
+    public Events getEvents() {
+        return events;
+    }
+
+    public void setEvents(Events events) {
+        this.events = events;
+    }
+
+    public Request getRequest() {
+        return request;
+    }
+
+    public void setRequest(Request request) {
+        this.request = request;
+    }
+
+    /**
+     * 配置文件加载方式
+     */
+    public enum Loader {
+        /**
+         * 使用java.util.Properties完整读取
+         */
+        PROPERTIES,
+
+        /**
+         * 内存映射文件并按需创建键值，只对文件系统中的配置文件生效，其余仍使用PROPERTIES
+         */
+        MAPPED
+    }
+
+    /**
+     * 外部配置目录监听
+     */
+    public static class Watch {
+
+        /**
+         * 是否监听外部配置目录并热加载变化的环境文件
+         */
+        private boolean enabled;
+
+        /**
+         * 去抖时间（毫秒），文件在该时间内没有新的写入才会重新加载
+         */
+        private long debounceMillis = 300;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getDebounceMillis() {
+            return debounceMillis;
+        }
+
+        public void setDebounceMillis(long debounceMillis) {
+            this.debounceMillis = debounceMillis;
+        }
+    }
+
+    /**
+     * 多租户配置
+     */
+    public static class Tenant {
+
+        /**
+         * 租户覆盖配置目录，目录下的 {租户ID}.properties 覆盖其基础环境的配置，
+         * 基础环境由文件中的 tenant.environment 指定，未指定时使用加载时的全局环境
+         */
+        private String directory;
+
+        /**
+         * 租户快照缓存的内存上限（估算值）
+         */
+        private DataSize maxWeight = DataSize.ofMegabytes(64);
+
+        /**
+         * 预计的活跃租户数量，用于确定访问频率统计的大小
+         */
+        private int expectedTenants = 100000;
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public DataSize getMaxWeight() {
+            return maxWeight;
+        }
+
+        public void setMaxWeight(DataSize maxWeight) {
+            this.maxWeight = maxWeight;
+        }
+
+        public int getExpectedTenants() {
+            return expectedTenants;
+        }
+
+        public void setExpectedTenants(int expectedTenants) {
+            this.expectedTenants = expectedTenants;
+        }
+    }
+
+    /**
+     * 请求级配置
+     */
+    public static class Request {
+
+        /**
+         * 指定请求级环境的请求头
+         */
+        private String header = "X-Config-Env";
+
+        /**
+         * 指定请求级环境的Cookie，请求头不存在时使用；为空时不读取Cookie
+         */
+        private String cookie = "config-env";
+
+        public String getHeader() {
+            return header;
+        }
+
+        public void setHeader(String header) {
+            this.header = header;
+        }
+
+        public String getCookie() {
+            return cookie;
+        }
+
+        public void setCookie(String cookie) {
+            this.cookie = cookie;
+        }
+    }
+
+    /**
+     * 环境切换事件的分发
+     */
+    public static class Events {
+
+        /**
+         * 是否异步分发：每个监听器在自己的线程上按版本顺序处理事件
+         */
+        private boolean async = true;
+
+        /**
+         * 每个监听器的待处理事件队列容量
+         */
+        private int queueCapacity = 1024;
+
+        /**
+         * 监听器队列已满时的处理方式
+         */
+        private SlowListenerPolicy slowListenerPolicy = SlowListenerPolicy.BLOCK;
+
+        /**
+         * BLOCK策略下发布方等待队列腾出空间的最长时间，超时后丢弃该事件
+         */
+        private Duration blockTimeout = Duration.ofSeconds(5);
+
+        /**
+         * 合并窗口：窗口内连续的全局切换只通知一次（第一次的原环境 -> 最后一次的新环境），为0时不合并
+         */
+        private Duration coalesceWindow = Duration.ZERO;
+
+        /**
+         * 单次监听器调用的耗时预算，超出时记录警告并计入统计
+         */
+        private Duration slowListenerBudget = Duration.ofMillis(100);
+
+        public boolean isAsync() {
+            return async;
+        }
+
+        public void setAsync(boolean async) {
+            this.async = async;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public SlowListenerPolicy getSlowListenerPolicy() {
+            return slowListenerPolicy;
+        }
+
+        public void setSlowListenerPolicy(SlowListenerPolicy slowListenerPolicy) {
+            this.slowListenerPolicy = slowListenerPolicy;
+        }
+
+        public Duration getBlockTimeout() {
+            return blockTimeout;
+        }
+
+        public void setBlockTimeout(Duration blockTimeout) {
+            this.blockTimeout = blockTimeout;
+        }
+
+        public Duration getCoalesceWindow() {
+            return coalesceWindow;
+        }
+
+        public void setCoalesceWindow(Duration coalesceWindow) {
+            this.coalesceWindow = coalesceWindow;
+        }
+
+        public Duration getSlowListenerBudget() {
+            return slowListenerBudget;
+        }
+
+        public void setSlowListenerBudget(Duration slowListenerBudget) {
+            this.slowListenerBudget = slowListenerBudget;
+        }
+    }
+
+    /**
+     * 监听器处理不及时的策略
+     */
+    public enum SlowListenerPolicy {
+        /**
+         * 等待队列腾出空间，发布方（切换线程，已释放切换锁）被阻塞，最长等待block-timeout；
+         * 发布方就是该监听器自己的线程时不等待，改为丢弃最早的事件
+         */
+        BLOCK,
+
+        /**
+         * 丢弃队列中最早的事件，监听器总能收到最新的事件
+         */
+        DROP_OLDEST
+    }
+}
@@ -2,6 +2,10 @@ package com.example.config;
 
 import org.springframework.context.ApplicationEvent;
 
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
 /**
  * 环境切换事件
  * 当环境配置发生切换时发布此事件
@@ -11,6 +15,9 @@ public class EnvironmentChangeEvent extends ApplicationEvent {
     private final String oldEnvironment;
     private final String newEnvironment;
     private final ConfigScope scope;
+    private final Set<String> changedKeys;
+    private final Set<String> changedSections;
+    private final ConfigSnapshot snapshot;
     private final long timestamp;
 
     public EnvironmentChangeEvent(Object source, String oldEnvironment, String newEnvironment) {
@@ -18,10 +25,29 @@ public class EnvironmentChangeEvent extends ApplicationEvent {
     }
 
     public EnvironmentChangeEvent(Object source, String oldEnvironment, String newEnvironment, ConfigScope scope) {
+        this(source, oldEnvironment, newEnvironment, scope, null);
+    }
+
+    /**
+     * @param changedKeys 发生变化的配置项，为null表示未知（视为全部变化）
+     */
+    public EnvironmentChangeEvent(Object source, String oldEnvironment, String newEnvironment, ConfigScope scope,
+                                  Set<String> changedKeys) {
+        this(source, oldEnvironment, newEnvironment, scope, changedKeys, null);
+    }
+
+    /**
+     * @param snapshot 切换后生效的快照，异步分发时监听器据此读取与事件一致的配置
+     */
+    public EnvironmentChangeEvent(Object source, String oldEnvironment, String newEnvironment, ConfigScope scope,
+                                  Set<String> changedKeys, ConfigSnapshot snapshot) {
         super(source);
         this.oldEnvironment = oldEnvironment;
         this.newEnvironment = newEnvironment;
         this.scope = scope;
+        this.changedKeys = changedKeys != null ? Collections.unmodifiableSet(changedKeys) : null;
+        this.changedSections = changedKeys != null ? ConfigDiff.sections(changedKeys) : null;
+        this.snapshot = snapshot;
         this.timestamp = System.currentTimeMillis();
     }
 
@@ -37,6 +63,62 @@ public class EnvironmentChangeEvent extends ApplicationEvent {
         return scope;
     }
 
+    /**
+     * 发生变化的配置项，未知时返回null
+     */
+    public Set<String> getChangedKeys() {
+        return changedKeys;
+    }
+
+    /**
+     * 发生变化的配置分组（如 database、redis），未知时返回null
+     */
+    public Set<String> getChangedSections() {
+        return changedSections;
+    }
+
+    /**
+     * 指定分组是否发生变化，变化未知时总是返回true
+     */
+    public boolean isSectionChanged(String section) {
+        return changedSections == null || changedSections.contains(section);
+    }
+
+    /**
+     * 是否有配置项发生变化
+     */
+    public boolean hasChanges() {
+        return changedKeys == null || !changedKeys.isEmpty();
+    }
+
+    /**
+     * 切换后生效的快照，未知时返回null
+     */
+    public ConfigSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * 切换后快照的版本号，同一作用域内随发布顺序递增；未知时返回-1
+     */
+    public long getVersion() {
+        return snapshot != null ? snapshot.getVersion() : -1;
+    }
+
+    /**
+     * 合并紧随其后的全局切换：保留本事件的原环境，使用next的新环境和快照
+     * 变化的配置项取并集，任一事件未知时结果也为未知
+     */
+    EnvironmentChangeEvent coalesce(EnvironmentChangeEvent next) {
+        Set<String> keys = null;
+        if (changedKeys != null && next.changedKeys != null) {
+            keys = new LinkedHashSet<>(changedKeys);
+            keys.addAll(next.changedKeys);
+        }
+        return new EnvironmentChangeEvent(getSource(), oldEnvironment, next.newEnvironment, next.scope, keys,
+                                          next.snapshot);
+    }
+
     public long getEventTimestamp() {
         return timestamp;
     }
@@ -55,6 +137,8 @@ public class EnvironmentChangeEvent extends ApplicationEvent {
                 "oldEnvironment='" + oldEnvironment + '\'' +
                 ", newEnvironment='" + newEnvironment + '\'' +
                 ", scope=" + scope +
+                ", version=" + getVersion() +
+                ", changedSections=" + changedSections +
                 ", timestamp=" + timestamp +
                 '}';
     }
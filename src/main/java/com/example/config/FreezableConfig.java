@@ -0,0 +1,24 @@
+package com.example.config;
+
+/**
+ * 可冻结的配置对象
+ * 进入ConfigSnapshot的AppConfig及其嵌套配置会被冻结，之后调用setter抛出UnsupportedOperationException；
+ * 冻结标记只在发布前写入，随快照的volatile发布对读取方可见
+ */
+abstract class FreezableConfig {
+
+    private boolean frozen;
+
+    /**
+     * 冻结当前对象，子类负责继续冻结嵌套配置
+     */
+    void freeze() {
+        frozen = true;
+    }
+
+    final void checkMutable() {
+        if (frozen) {
+            throw new UnsupportedOperationException("快照中的配置为只读，不能修改");
+        }
+    }
+}
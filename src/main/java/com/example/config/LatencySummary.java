@@ -0,0 +1,46 @@
+package com.example.config;
+
+import org.HdrHistogram.AbstractHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 延迟统计（纳秒记录，微秒输出）
+ * 监听器耗时、负载测试和切换测量统一使用HdrHistogram，分位数口径和输出字段保持一致
+ */
+public final class LatencySummary {
+
+    /**
+     * 有效数字位数，相对误差不超过0.1%
+     */
+    public static final int SIGNIFICANT_DIGITS = 3;
+
+    private LatencySummary() {
+    }
+
+    /**
+     * 单线程记录的直方图，自动扩展取值范围
+     */
+    public static Histogram newHistogram() {
+        return new Histogram(SIGNIFICANT_DIGITS);
+    }
+
+    /**
+     * 以微秒为单位的摘要：count、minMicros、meanMicros、p50/p90/p99/p999Micros、maxMicros
+     */
+    public static Map<String, Object> of(AbstractHistogram histogram) {
+        long count = histogram.getTotalCount();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", count);
+        summary.put("minMicros", count == 0 ? 0.0 : histogram.getMinValue() / 1000.0);
+        summary.put("meanMicros", count == 0 ? 0.0 : histogram.getMean() / 1000.0);
+        summary.put("p50Micros", histogram.getValueAtPercentile(50) / 1000.0);
+        summary.put("p90Micros", histogram.getValueAtPercentile(90) / 1000.0);
+        summary.put("p99Micros", histogram.getValueAtPercentile(99) / 1000.0);
+        summary.put("p999Micros", histogram.getValueAtPercentile(99.9) / 1000.0);
+        summary.put("maxMicros", histogram.getMaxValue() / 1000.0);
+        return summary;
+    }
+}
@@ -0,0 +1,535 @@
+package com.example.config;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * 基于内存映射的只读配置属性
+ * 直接在映射的文件缓冲区上解析 .properties 格式（与 java.util.Properties 的 ISO-8859-1 规则一致），
+ * 只记录键值在缓冲区中的偏移，用开放寻址表索引；键和值的String在首次访问时才创建
+ *
+ * 注意：映射期间文件不能被原地截断或改写，更新大文件时请先写临时文件再通过重命名原子替换
+ */
+public final class MappedProperties extends AbstractMap<String, String> {
+
+    private static final byte FLAG_SHADOWED = 1;
+
+    private final ByteBuffer buffer;
+
+    // 按出现顺序记录的条目（可能包含被后出现的同名键覆盖的条目）
+    private int entryCount;
+    private int[] keyStarts;
+    private int[] keyEnds;
+    private int[] valueStarts;
+    private int[] valueEnds;
+    private int[] hashes;
+    private byte[] flags;
+    private String[] keys;
+    private String[] values;
+
+    // 开放寻址表，存放 条目下标 + 1，0表示空槽
+    private int[] table;
+    private int mask;
+    private int size;
+
+    private MappedProperties(ByteBuffer buffer) {
+        this.buffer = buffer;
+        int initialCapacity = Math.max(16, buffer.limit() / 32);
+        this.keyStarts = new int[initialCapacity];
+        this.keyEnds = new int[initialCapacity];
+        this.valueStarts = new int[initialCapacity];
+        this.valueEnds = new int[initialCapacity];
+        this.hashes = new int[initialCapacity];
+        this.flags = new byte[initialCapacity];
+        this.keys = new String[initialCapacity];
+        this.values = new String[initialCapacity];
+    }
+
+    /**
+     * 映射并解析配置文件
+     */
+    public static MappedProperties load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length > Integer.MAX_VALUE) {
+                throw new IOException("配置文件过大，无法映射: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            return parse(buffer);
+        }
+    }
+
+    /**
+     * 解析缓冲区中的配置内容（从0到limit）
+     */
+    public static MappedProperties parse(ByteBuffer buffer) {
+        MappedProperties properties = new MappedProperties(buffer);
+        properties.parseEntries();
+        properties.buildTable();
+        return properties;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String && find((String) key) >= 0;
+    }
+
+    @Override
+    public String get(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        int index = find((String) key);
+        return index >= 0 ? value(index) : null;
+    }
+
+    @Override
+    public Set<Map.Entry<String, String>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<String, String>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    // ---------------------------------------------------------------- 解析
+
+    private void parseEntries() {
+        int limit = buffer.limit();
+        int i = 0;
+        while (i < limit) {
+            int c = byteAt(i);
+            if (isWhitespace(c) || c == '\r' || c == '\n') {
+                i++;
+            } else if (c == '#' || c == '!') {
+                i = skipLine(i, limit);
+            } else {
+                i = parseLine(i, limit);
+            }
+        }
+    }
+
+    /**
+     * 解析一个逻辑行，返回下一行的起始位置
+     * 不含反斜杠的行直接记录偏移；含反斜杠（转义或续行）的行按Properties规则立即解码
+     */
+    private int parseLine(int start, int limit) {
+        int end = start;
+        boolean hasBackslash = false;
+        while (end < limit) {
+            int c = byteAt(end);
+            if (c == '\n' || c == '\r') {
+                break;
+            }
+            if (c == '\\') {
+                hasBackslash = true;
+            }
+            end++;
+        }
+
+        if (hasBackslash) {
+            return parseEscapedLine(start, limit);
+        }
+
+        int keyEnd = start;
+        while (keyEnd < end) {
+            int c = byteAt(keyEnd);
+            if (c == '=' || c == ':' || isWhitespace(c)) {
+                break;
+            }
+            keyEnd++;
+        }
+
+        int valueStart = skipSeparator(keyEnd, end);
+        int hash = 0;
+        for (int k = start; k < keyEnd; k++) {
+            hash = 31 * hash + byteAt(k);
+        }
+        addEntry(start, keyEnd, valueStart, end, hash, null, null);
+        return end;
+    }
+
+    private int skipSeparator(int position, int end) {
+        boolean hasSeparator = false;
+        while (position < end) {
+            int c = byteAt(position);
+            if (!isWhitespace(c)) {
+                if (!hasSeparator && (c == '=' || c == ':')) {
+                    hasSeparator = true;
+                } else {
+                    break;
+                }
+            }
+            position++;
+        }
+        return position;
+    }
+
+    /**
+     * 慢路径：处理转义和续行，规则与 java.util.Properties 保持一致
+     */
+    private int parseEscapedLine(int start, int limit) {
+        StringBuilder line = new StringBuilder();
+        int i = start;
+        boolean precedingBackslash = false;
+        boolean skipWhitespace = false;
+        boolean appendedLineBegin = false;
+
+        while (i < limit) {
+            char c = (char) byteAt(i++);
+            if (skipWhitespace) {
+                if (isWhitespace(c) || (!appendedLineBegin && (c == '\r' || c == '\n'))) {
+                    continue;
+                }
+                skipWhitespace = false;
+                appendedLineBegin = false;
+            }
+            if (c != '\n' && c != '\r') {
+                line.append(c);
+                precedingBackslash = c == '\\' && !precedingBackslash;
+                continue;
+            }
+
+            if (c == '\r' && i < limit && byteAt(i) == '\n') {
+                i++;
+            }
+            if (!precedingBackslash) {
+                break;
+            }
+            // 续行：去掉行尾反斜杠，并跳过下一行开头的空白
+            line.setLength(line.length() - 1);
+            precedingBackslash = false;
+            skipWhitespace = true;
+            appendedLineBegin = true;
+        }
+        if (precedingBackslash) {
+            line.setLength(line.length() - 1);
+        }
+
+        int length = line.length();
+        int keyLength = 0;
+        int valueStart = length;
+        boolean hasSeparator = false;
+        boolean backslash = false;
+        while (keyLength < length) {
+            char c = line.charAt(keyLength);
+            if ((c == '=' || c == ':') && !backslash) {
+                valueStart = keyLength + 1;
+                hasSeparator = true;
+                break;
+            } else if (isWhitespace(c) && !backslash) {
+                valueStart = keyLength + 1;
+                break;
+            }
+            backslash = c == '\\' && !backslash;
+            keyLength++;
+        }
+        while (valueStart < length) {
+            char c = line.charAt(valueStart);
+            if (!isWhitespace(c)) {
+                if (!hasSeparator && (c == '=' || c == ':')) {
+                    hasSeparator = true;
+                } else {
+                    break;
+                }
+            }
+            valueStart++;
+        }
+
+        String key = unescape(line, 0, keyLength);
+        String value = unescape(line, valueStart, length);
+        addEntry(-1, -1, -1, -1, key.hashCode(), key, value);
+        return i;
+    }
+
+    private static String unescape(CharSequence text, int start, int end) {
+        StringBuilder out = new StringBuilder(end - start);
+        int i = start;
+        while (i < end) {
+            char c = text.charAt(i++);
+            if (c != '\\' || i >= end) {
+                out.append(c);
+                continue;
+            }
+            c = text.charAt(i++);
+            switch (c) {
+                case 'u':
+                    if (i + 4 > end) {
+                        throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+                    }
+                    int code = 0;
+                    for (int k = 0; k < 4; k++) {
+                        int digit = Character.digit(text.charAt(i++), 16);
+                        if (digit < 0) {
+                            throw new IllegalArgumentException("Malformed \\uxxxx encoding.");
+                        }
+                        code = (code << 4) | digit;
+                    }
+                    out.append((char) code);
+                    break;
+                case 't':
+                    out.append('\t');
+                    break;
+                case 'r':
+                    out.append('\r');
+                    break;
+                case 'n':
+                    out.append('\n');
+                    break;
+                case 'f':
+                    out.append('\f');
+                    break;
+                default:
+                    out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    private int skipLine(int position, int limit) {
+        while (position < limit) {
+            int c = byteAt(position);
+            if (c == '\n' || c == '\r') {
+                break;
+            }
+            position++;
+        }
+        return position;
+    }
+
+    private void addEntry(int keyStart, int keyEnd, int valueStart, int valueEnd, int hash, String key, String value) {
+        if (entryCount == hashes.length) {
+            grow();
+        }
+        keyStarts[entryCount] = keyStart;
+        keyEnds[entryCount] = keyEnd;
+        valueStarts[entryCount] = valueStart;
+        valueEnds[entryCount] = valueEnd;
+        hashes[entryCount] = hash;
+        keys[entryCount] = key;
+        values[entryCount] = value;
+        entryCount++;
+    }
+
+    private void grow() {
+        int capacity = hashes.length * 2;
+        keyStarts = Arrays.copyOf(keyStarts, capacity);
+        keyEnds = Arrays.copyOf(keyEnds, capacity);
+        valueStarts = Arrays.copyOf(valueStarts, capacity);
+        valueEnds = Arrays.copyOf(valueEnds, capacity);
+        hashes = Arrays.copyOf(hashes, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+        values = Arrays.copyOf(values, capacity);
+    }
+
+    /**
+     * 建立开放寻址表，同名键后出现的覆盖先出现的
+     */
+    private void buildTable() {
+        int capacity = Integer.highestOneBit(Math.max(4, entryCount * 2 - 1)) << 1;
+        table = new int[capacity];
+        mask = capacity - 1;
+
+        for (int index = 0; index < entryCount; index++) {
+            int slot = spread(hashes[index]) & mask;
+            while (true) {
+                int existing = table[slot] - 1;
+                if (existing < 0) {
+                    table[slot] = index + 1;
+                    size++;
+                    break;
+                }
+                if (hashes[existing] == hashes[index] && sameKey(existing, index)) {
+                    flags[existing] |= FLAG_SHADOWED;
+                    table[slot] = index + 1;
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------- 查找
+
+    private int find(String key) {
+        int hash = key.hashCode();
+        int slot = spread(hash) & mask;
+        while (true) {
+            int index = table[slot] - 1;
+            if (index < 0) {
+                return -1;
+            }
+            if (hashes[index] == hash && keyEquals(index, key)) {
+                return index;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private boolean keyEquals(int index, String key) {
+        String materialized = keys[index];
+        if (materialized != null) {
+            return materialized.equals(key);
+        }
+        int start = keyStarts[index];
+        int length = keyEnds[index] - start;
+        if (length != key.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (byteAt(start + i) != key.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean sameKey(int a, int b) {
+        if (keys[a] != null || keys[b] != null) {
+            return key(a).equals(key(b));
+        }
+        int length = keyEnds[a] - keyStarts[a];
+        if (length != keyEnds[b] - keyStarts[b]) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (byteAt(keyStarts[a] + i) != byteAt(keyStarts[b] + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String key(int index) {
+        String key = keys[index];
+        if (key == null) {
+            key = latin1(keyStarts[index], keyEnds[index]);
+            keys[index] = key;
+        }
+        return key;
+    }
+
+    private String value(int index) {
+        String value = values[index];
+        if (value == null) {
+            value = latin1(valueStarts[index], valueEnds[index]);
+            values[index] = value;
+        }
+        return value;
+    }
+
+    private String latin1(int start, int end) {
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes, 0, bytes.length);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    private int byteAt(int position) {
+        return buffer.get(position) & 0xFF;
+    }
+
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\t' || c == '\f';
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * 按出现顺序遍历未被覆盖的条目，键值在访问时才创建
+     */
+    private final class EntryIterator implements Iterator<Map.Entry<String, String>> {
+
+        private int next = advance(0);
+
+        private int advance(int from) {
+            while (from < entryCount && (flags[from] & FLAG_SHADOWED) != 0) {
+                from++;
+            }
+            return from;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < entryCount;
+        }
+
+        @Override
+        public Map.Entry<String, String> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int index = next;
+            next = advance(next + 1);
+            return new LazyEntry(index);
+        }
+    }
+
+    private final class LazyEntry implements Map.Entry<String, String> {
+
+        private final int index;
+
+        LazyEntry(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public String getKey() {
+            return key(index);
+        }
+
+        @Override
+        public String getValue() {
+            return value(index);
+        }
+
+        @Override
+        public String setValue(String value) {
+            throw new UnsupportedOperationException("MappedProperties是只读的");
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> other = (Map.Entry<?, ?>) o;
+            return getKey().equals(other.getKey()) && getValue().equals(other.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return getKey().hashCode() ^ getValue().hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.config;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * 分层的只读属性视图
+ * 覆盖层中的键优先，其余键读取基础环境的属性；基础属性不会被复制，
+ * 大量租户共享同一基础环境时每个租户只占用覆盖层的内存
+ */
+final class OverlayProperties extends AbstractMap<String, String> {
+
+    private final Map<String, String> base;
+    private final Map<String, String> overlay;
+    private final int size;
+
+    OverlayProperties(Map<String, String> base, Map<String, String> overlay) {
+        this.base = base;
+        this.overlay = Collections.unmodifiableMap(new LinkedHashMap<>(overlay));
+        int added = 0;
+        for (String key : overlay.keySet()) {
+            if (!base.containsKey(key)) {
+                added++;
+            }
+        }
+        this.size = base.size() + added;
+    }
+
+    /**
+     * 基础环境的属性
+     */
+    Map<String, String> getBase() {
+        return base;
+    }
+
+    /**
+     * 覆盖层中的属性
+     */
+    Map<String, String> getOverlay() {
+        return overlay;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return overlay.containsKey(key) || base.containsKey(key);
+    }
+
+    @Override
+    public String get(Object key) {
+        String value = overlay.get(key);
+        return value != null ? value : base.get(key);
+    }
+
+    @Override
+    public Set<Map.Entry<String, String>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<String, String>> iterator() {
+                return new OverlayIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * 先遍历覆盖层，再遍历基础属性中未被覆盖的键
+     */
+    private final class OverlayIterator implements Iterator<Map.Entry<String, String>> {
+
+        private final Iterator<Map.Entry<String, String>> overlayIterator = overlay.entrySet().iterator();
+        private final Iterator<Map.Entry<String, String>> baseIterator = base.entrySet().iterator();
+        private Map.Entry<String, String> next = advance();
+
+        private Map.Entry<String, String> advance() {
+            if (overlayIterator.hasNext()) {
+                return overlayIterator.next();
+            }
+            while (baseIterator.hasNext()) {
+                Map.Entry<String, String> entry = baseIterator.next();
+                if (!overlay.containsKey(entry.getKey())) {
+                    return entry;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Map.Entry<String, String> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Map.Entry<String, String> current = next;
+            next = advance();
+            return current;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+import java.util.concurrent.Callable;
+import java.util.function.Function;
+
+/**
+ * 响应式配置访问
+ * 事件循环线程被许多请求交替使用，ThreadLocal中的临时配置在这里没有意义；
+ * 请求级的环境保存在Reactor Context中，沿订阅链传递，未指定时使用全局快照
+ *
+ * 环境快照直接取自ConfigSnapshotRegistry，与Servlet一侧共享同一份缓存，不会重复绑定；
+ * 未缓存的环境在boundedElastic上加载，事件循环线程不做文件读取和绑定
+ */
+@Component
+public class ReactiveConfigManager {
+
+    /**
+     * Reactor Context中保存ConfigSnapshot的键
+     */
+    public static final String CONTEXT_KEY = ReactiveConfigManager.class.getName() + ".snapshot";
+
+    /**
+     * Reactor Context中保存尚未加载的环境名称的键，订阅时再异步加载
+     */
+    static final String ENVIRONMENT_KEY = ReactiveConfigManager.class.getName() + ".environment";
+
+    private final DynamicConfigManager configManager;
+    private final ConfigSnapshotRegistry snapshotRegistry;
+    private final ConfigContext configContext;
+
+    @Autowired
+    public ReactiveConfigManager(DynamicConfigManager configManager, ConfigSnapshotRegistry snapshotRegistry,
+                                 ConfigContext configContext) {
+        this.configManager = configManager;
+        this.snapshotRegistry = snapshotRegistry;
+        this.configContext = configContext;
+    }
+
+    /**
+     * 当前订阅链生效的配置快照
+     */
+    public Mono<ConfigSnapshot> currentSnapshot() {
+        return Mono.deferContextual(this::snapshotOf);
+    }
+
+    /**
+     * 当前订阅链生效的配置
+     */
+    public Mono<AppConfig> currentConfig() {
+        return currentSnapshot().map(ConfigSnapshot::getConfig);
+    }
+
+    /**
+     * 当前订阅链生效的环境名称
+     */
+    public Mono<String> currentEnvironment() {
+        return currentSnapshot().map(ConfigSnapshot::getEnvironment);
+    }
+
+    /**
+     * 用于contextWrite，为上游订阅链指定环境
+     * 环境已缓存时直接写入快照，否则只写入环境名，订阅时再加载
+     *
+     * @throws IllegalArgumentException 不支持的环境
+     */
+    public Function<Context, Context> withEnvironment(String env) {
+        ConfigSnapshot snapshot = env != null ? snapshotRegistry.getIfLoaded(env) : null;
+        if (snapshot != null) {
+            return context -> context.put(CONTEXT_KEY, snapshot);
+        }
+        if (!snapshotRegistry.isIndexed(env)) {
+            throw new IllegalArgumentException("不支持的环境: " + env);
+        }
+        return context -> context.put(ENVIRONMENT_KEY, env);
+    }
+
+    /**
+     * 在订阅链的配置下执行阻塞代码，代码内部通过DynamicConfigManager读取到的也是这份配置
+     * 通常配合subscribeOn(Schedulers.boundedElastic())使用
+     */
+    public <T> Mono<T> fromCallable(Callable<T> callable) {
+        return Mono.deferContextual(context -> {
+            if (!context.hasKey(CONTEXT_KEY) && !context.hasKey(ENVIRONMENT_KEY)) {
+                return Mono.fromCallable(callable);
+            }
+            return snapshotOf(context)
+                    .flatMap(snapshot -> Mono.fromCallable(() -> configContext.call(snapshot, callable)));
+        });
+    }
+
+    /**
+     * 判断环境是否存在，只查内存索引，不访问文件系统
+     */
+    boolean isSupported(String env) {
+        return snapshotRegistry.isIndexed(env);
+    }
+
+    /**
+     * 查找环境快照
+     * 已缓存时直接返回；未缓存时在boundedElastic上加载，不占用事件循环线程
+     *
+     * @return 快照，环境不存在或加载失败时为空
+     */
+    Mono<ConfigSnapshot> resolve(String env) {
+        ConfigSnapshot snapshot = env != null ? snapshotRegistry.getIfLoaded(env) : null;
+        if (snapshot != null) {
+            return Mono.just(snapshot);
+        }
+        if (!snapshotRegistry.isIndexed(env)) {
+            return Mono.empty();
+        }
+        return Mono.fromCallable(() -> snapshotRegistry.get(env))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Mono<ConfigSnapshot> snapshotOf(ContextView context) {
+        ConfigSnapshot snapshot = context.getOrDefault(CONTEXT_KEY, null);
+        if (snapshot != null) {
+            return Mono.just(snapshot);
+        }
+        String env = context.getOrDefault(ENVIRONMENT_KEY, null);
+        if (env == null) {
+            // 全局快照在初始化成功后才存在
+            return Mono.justOrEmpty(configManager.getGlobalSnapshot())
+                    .switchIfEmpty(Mono.error(() -> new IllegalStateException("全局环境配置尚未初始化")));
+        }
+        return resolve(env)
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("加载环境配置失败: " + env)));
+    }
+}
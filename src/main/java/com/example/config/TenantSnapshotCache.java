@@ -0,0 +1,269 @@
+package com.example.config;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * 租户配置快照缓存
+ * 按估算的内存占用限制容量；命中只有一次ConcurrentHashMap读取和一次无锁的频率计数，
+ * 未命中时在锁外加载快照，只有准入和淘汰在锁内进行；同一租户的并发未命中只加载一次，其余调用方等待同一结果
+ *
+ * 加载期间发生失效（invalidate/invalidateIf）时，加载结果只返回给调用方、不写入缓存，避免缓存失效前的旧快照
+ *
+ * 准入采用TinyLFU：容量不足时随机抽样若干条目，选出频率最低的作为淘汰候选，
+ * 只有新租户的访问频率高于候选时才淘汰候选并写入，偶发访问的租户不会挤掉热点租户
+ */
+final class TenantSnapshotCache {
+
+    private static final int SAMPLE_SIZE = 5;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // 正在加载的租户，用于合并同一租户的并发加载
+    private final Map<String, CompletableFuture<ConfigSnapshot>> loading = new ConcurrentHashMap<>();
+    private final FrequencySketch sketch;
+    private final long maxWeight;
+    private final Function<String, ConfigSnapshot> loader;
+    private final ToLongFunction<ConfigSnapshot> weigher;
+
+    // 以下字段只在evictionLock内访问
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final List<Entry> sampleList = new ArrayList<>();
+    private long totalWeight;
+
+    // 失效次数，加载开始后发生过失效的结果不写入缓存；只在evictionLock内修改
+    private volatile long generation;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+
+    TenantSnapshotCache(long maxWeight, int expectedTenants,
+                        Function<String, ConfigSnapshot> loader,
+                        ToLongFunction<ConfigSnapshot> weigher) {
+        this.maxWeight = maxWeight;
+        this.sketch = new FrequencySketch(expectedTenants);
+        this.loader = loader;
+        this.weigher = weigher;
+    }
+
+    /**
+     * 获取租户快照，未缓存时加载
+     * 未通过准入的快照仍返回给调用方，只是不缓存
+     *
+     * @return 租户快照，租户不存在或加载失败时返回null
+     */
+    ConfigSnapshot get(String tenantId) {
+        sketch.increment(tenantId.hashCode());
+        Entry entry = entries.get(tenantId);
+        if (entry != null) {
+            hits.increment();
+            return entry.snapshot;
+        }
+
+        misses.increment();
+        CompletableFuture<ConfigSnapshot> future = new CompletableFuture<>();
+        CompletableFuture<ConfigSnapshot> inFlight = loading.putIfAbsent(tenantId, future);
+        if (inFlight != null) {
+            return await(inFlight);
+        }
+
+        try {
+            long loadGeneration = generation;
+            ConfigSnapshot snapshot = loader.apply(tenantId);
+            if (snapshot == null) {
+                loadFailures.increment();
+            } else {
+                snapshot = admit(tenantId, snapshot, loadGeneration);
+            }
+            future.complete(snapshot);
+            return snapshot;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(tenantId, future);
+        }
+    }
+
+    private static ConfigSnapshot await(CompletableFuture<ConfigSnapshot> inFlight) {
+        try {
+            return inFlight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 移除单个租户
+     */
+    boolean invalidate(String tenantId) {
+        evictionLock.lock();
+        try {
+            generation++;
+            Entry entry = entries.get(tenantId);
+            if (entry == null) {
+                return false;
+            }
+            remove(entry);
+            return true;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * 移除快照满足条件的所有租户
+     *
+     * @return 移除的租户数量
+     */
+    int invalidateIf(Predicate<ConfigSnapshot> predicate) {
+        evictionLock.lock();
+        try {
+            generation++;
+            int removed = 0;
+            for (int i = sampleList.size() - 1; i >= 0; i--) {
+                Entry entry = sampleList.get(i);
+                if (predicate.test(entry.snapshot)) {
+                    remove(entry);
+                    removed++;
+                }
+            }
+            return removed;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * 获取缓存统计信息
+     */
+    Map<String, Object> getStatistics() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + missCount;
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("size", entries.size());
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", requests == 0 ? 0.0 : (double) hitCount / requests);
+        stats.put("evictions", evictions.sum());
+        stats.put("rejections", rejections.sum());
+        stats.put("loadFailures", loadFailures.sum());
+        stats.put("maxWeightBytes", maxWeight);
+        evictionLock.lock();
+        try {
+            stats.put("weightBytes", totalWeight);
+        } finally {
+            evictionLock.unlock();
+        }
+        return stats;
+    }
+
+    private ConfigSnapshot admit(String tenantId, ConfigSnapshot snapshot, long loadGeneration) {
+        long weight = weigher.applyAsLong(snapshot);
+        int hash = tenantId.hashCode();
+
+        evictionLock.lock();
+        try {
+            Entry existing = entries.get(tenantId);
+            if (existing != null) {
+                return existing.snapshot;
+            }
+            // 加载期间发生过失效，结果可能基于失效前的环境，不缓存
+            if (loadGeneration != generation) {
+                return snapshot;
+            }
+            if (weight > maxWeight) {
+                rejections.increment();
+                return snapshot;
+            }
+
+            int candidateFrequency = sketch.frequency(hash);
+            while (totalWeight + weight > maxWeight) {
+                Entry victim = sampleVictim();
+                if (sketch.frequency(victim.hash) >= candidateFrequency) {
+                    rejections.increment();
+                    return snapshot;
+                }
+                remove(victim);
+                evictions.increment();
+            }
+
+            Entry entry = new Entry(tenantId, hash, snapshot, weight);
+            entry.index = sampleList.size();
+            sampleList.add(entry);
+            entries.put(tenantId, entry);
+            totalWeight += weight;
+            return snapshot;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * 随机抽样，返回频率最低的条目
+     */
+    private Entry sampleVictim() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int size = sampleList.size();
+        Entry victim = null;
+        int victimFrequency = Integer.MAX_VALUE;
+        for (int i = 0; i < Math.min(SAMPLE_SIZE, size); i++) {
+            Entry entry = sampleList.get(random.nextInt(size));
+            int frequency = sketch.frequency(entry.hash);
+            if (frequency < victimFrequency) {
+                victim = entry;
+                victimFrequency = frequency;
+            }
+        }
+        return victim;
+    }
+
+    /**
+     * 从映射和抽样列表中移除条目，抽样列表用末尾元素填补空位
+     */
+    private void remove(Entry entry) {
+        entries.remove(entry.tenantId);
+        Entry last = sampleList.remove(sampleList.size() - 1);
+        if (last != entry) {
+            last.index = entry.index;
+            sampleList.set(entry.index, last);
+        }
+        totalWeight -= entry.weight;
+    }
+
+    private static final class Entry {
+
+        private final String tenantId;
+        private final int hash;
+        private final ConfigSnapshot snapshot;
+        private final long weight;
+
+        // 在抽样列表中的位置，只在evictionLock内访问
+        private int index;
+
+        Entry(String tenantId, int hash, ConfigSnapshot snapshot, long weight) {
+            this.tenantId = tenantId;
+            this.hash = hash;
+            this.snapshot = snapshot;
+            this.weight = weight;
+        }
+    }
+}
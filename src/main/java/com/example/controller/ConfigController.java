@@ -2,6 +2,8 @@ package com.example.controller;
 
 import com.example.config.AppConfig;
 import com.example.config.ConfigScope;
+import com.example.config.ConfigSnapshot;
+import com.example.config.ConfigValuePool;
 import com.example.config.DynamicConfigManager;
 import com.example.config.EnvironmentChangeEvent;
 import org.slf4j.Logger;
@@ -27,11 +29,13 @@ public class ConfigController {
 
     private final DynamicConfigManager configManager;
     private final AppConfig appConfig;
+    private final ConfigValuePool valuePool;
 
     @Autowired
-    public ConfigController(DynamicConfigManager configManager, AppConfig appConfig) {
+    public ConfigController(DynamicConfigManager configManager, AppConfig appConfig, ConfigValuePool valuePool) {
         this.configManager = configManager;
         this.appConfig = appConfig;
+        this.valuePool = valuePool;
     }
 
     /**
@@ -103,7 +107,8 @@ public class ConfigController {
         Map<String, Object> response = new HashMap<>();
         response.put("environment", configManager.getCurrentEnvironment());
         response.put("hasTemporaryConfig", configManager.hasTemporaryConfig());
-        response.put("config", buildConfigResponse());
+        // 当前有效的配置（临时配置优先）
+        response.put("config", buildConfigResponse(configManager.getCurrentConfig()));
         response.put("timestamp", System.currentTimeMillis());
 
         return ResponseEntity.ok(response);
@@ -153,6 +158,121 @@ public class ConfigController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * 获取配置值字符串池统计信息（去重次数和估算节省的字节数）
+     */
+    @GetMapping("/value-pool")
+    public ResponseEntity<Map<String, Object>> getValuePoolStatistics() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("statistics", valuePool.getStatistics());
+        response.put("timestamp", System.currentTimeMillis());
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 获取当前全局环境的属性覆盖
+     */
+    @GetMapping("/overrides")
+    public ResponseEntity<Map<String, Object>> getOverrides() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("environment", configManager.getCurrentEnvironment());
+        response.put("overrides", configManager.getActiveOverrides());
+        response.put("version", configManager.getGlobalSnapshot().getVersion());
+        response.put("historySize", configManager.getOverrideHistorySize());
+        response.put("timestamp", System.currentTimeMillis());
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 批量覆盖配置项，整批作为一个新快照发布
+     * 未知的配置项或null值返回400，整批都不生效
+     */
+    @PostMapping("/overrides")
+    public ResponseEntity<Map<String, Object>> applyOverrides(@RequestBody Map<String, String> overrides) {
+        logger.info("收到属性覆盖请求: {}", overrides.keySet());
+        try {
+            return overrideResponse(configManager.applyOverrides(overrides), "属性覆盖已生效", "属性覆盖失败");
+        } catch (IllegalArgumentException e) {
+            return overrideResponse(false, null, e.getMessage());
+        }
+    }
+
+    /**
+     * 回滚到上一次属性覆盖之前的配置
+     */
+    @PostMapping("/overrides/rollback")
+    public ResponseEntity<Map<String, Object>> rollbackOverrides() {
+        return overrideResponse(configManager.rollbackOverrides(), "已回滚到上一个版本", "没有可回滚的历史");
+    }
+
+    /**
+     * 清除所有属性覆盖
+     */
+    @DeleteMapping("/overrides")
+    public ResponseEntity<Map<String, Object>> clearOverrides() {
+        return overrideResponse(configManager.clearOverrides(), "属性覆盖已清除", "当前没有属性覆盖");
+    }
+
+    private ResponseEntity<Map<String, Object>> overrideResponse(boolean success, String successMessage,
+                                                                 String failureMessage) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", success);
+        response.put("message", success ? successMessage : failureMessage);
+        response.put("environment", configManager.getCurrentEnvironment());
+        response.put("overrides", configManager.getActiveOverrides());
+        response.put("version", configManager.getGlobalSnapshot().getVersion());
+        response.put("timestamp", System.currentTimeMillis());
+
+        return success ? ResponseEntity.ok(response) : ResponseEntity.badRequest().body(response);
+    }
+
+    /**
+     * 获取租户配置
+     */
+    @GetMapping("/tenants/{tenantId}")
+    public ResponseEntity<Map<String, Object>> getTenantConfig(@PathVariable String tenantId) {
+        ConfigSnapshot snapshot = configManager.getTenantSnapshot(tenantId);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("tenantId", tenantId);
+        response.put("timestamp", System.currentTimeMillis());
+        if (snapshot == null) {
+            response.put("message", "租户不存在或加载失败: " + tenantId);
+            return ResponseEntity.status(404).body(response);
+        }
+        response.put("environment", snapshot.getEnvironment());
+        response.put("config", buildConfigResponse(snapshot.getConfig()));
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 清除租户的缓存快照
+     */
+    @DeleteMapping("/tenants/{tenantId}")
+    public ResponseEntity<Map<String, Object>> invalidateTenant(@PathVariable String tenantId) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("tenantId", tenantId);
+        response.put("invalidated", configManager.invalidateTenant(tenantId));
+        response.put("timestamp", System.currentTimeMillis());
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * 获取租户快照缓存统计信息（命中、未命中、淘汰次数等）
+     */
+    @GetMapping("/tenants/statistics")
+    public ResponseEntity<Map<String, Object>> getTenantCacheStatistics() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("statistics", configManager.getTenantCacheStatistics());
+        response.put("timestamp", System.currentTimeMillis());
+
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * 健康检查接口
      */
@@ -170,10 +290,7 @@ public class ConfigController {
     /**
      * 构建配置响应对象
      */
-    private Map<String, Object> buildConfigResponse() {
-        // 获取当前有效的配置（临时配置优先）
-        AppConfig currentConfig = configManager.getCurrentConfig();
-
+    private Map<String, Object> buildConfigResponse(AppConfig currentConfig) {
         Map<String, Object> config = new HashMap<>();
 
         // 数据库配置
@@ -2,14 +2,20 @@ package com.example.controller;
 
 import com.example.config.AppConfig;
 import com.example.config.DynamicConfigManager;
+import com.example.service.ConfigLoadHarness;
+import com.example.service.ConfigSwitchBenchmark;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 优化后的配置测试控制器
@@ -23,11 +29,16 @@ public class OptimizedConfigTestController {
 
     private final DynamicConfigManager configManager;
     private final AppConfig appConfig;
+    private final ConfigLoadHarness loadHarness;
+    private final ConfigSwitchBenchmark switchBenchmark;
 
     @Autowired
-    public OptimizedConfigTestController(DynamicConfigManager configManager, AppConfig appConfig) {
+    public OptimizedConfigTestController(DynamicConfigManager configManager, AppConfig appConfig,
+                                         ConfigLoadHarness loadHarness, ConfigSwitchBenchmark switchBenchmark) {
         this.configManager = configManager;
         this.appConfig = appConfig;
+        this.loadHarness = loadHarness;
+        this.switchBenchmark = switchBenchmark;
     }
 
     /**
@@ -100,18 +111,21 @@ public class OptimizedConfigTestController {
         String[] switchSequence = {"prod", "test", "dev"};
         
         for (String targetEnv : switchSequence) {
-            long startTime = System.currentTimeMillis();
+            long startTime = System.nanoTime();
             boolean success = configManager.switchEnvironment(targetEnv);
-            long endTime = System.currentTimeMillis();
+            long elapsedNanos = System.nanoTime() - startTime;
+            double durationMicros = elapsedNanos / 1000.0;
             
             Map<String, Object> switchResult = new HashMap<>();
             switchResult.put("success", success);
-            switchResult.put("duration", endTime - startTime);
+            // duration保留原来的毫秒值，兼容已有调用方
+            switchResult.put("duration", TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+            switchResult.put("durationMicros", durationMicros);
             switchResult.put("currentConfig", captureCurrentConfig());
             
             results.put("switch_to_" + targetEnv, switchResult);
             
-            logger.info("切换到 {} 环境: 成功={}, 耗时={}ms", targetEnv, success, endTime - startTime);
+            logger.info("切换到 {} 环境: 成功={}, 耗时={}μs", targetEnv, success, durationMicros);
         }
         
         Map<String, Object> response = new HashMap<>();
@@ -125,6 +139,52 @@ public class OptimizedConfigTestController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * 切换耗时测量
+     * 每对环境先预热再正式迭代，按作用域（global/temporary）和环境对返回 min/mean/p50/p99/max（微秒）
+     * environments指定参与测量的环境（如 dev,prod），不指定时使用全部环境；环境对超过上限时返回400，
+     * 超过时间预算时提前停止并返回truncated=true
+     */
+    @PostMapping("/switch-benchmark")
+    public ResponseEntity<Map<String, Object>> switchBenchmark(@RequestParam(defaultValue = "50") int warmupIterations,
+                                                               @RequestParam(defaultValue = "200") int iterations,
+                                                               @RequestParam(required = false) List<String> environments,
+                                                               @RequestParam(defaultValue = "30000") long timeBudgetMillis) {
+        try {
+            return ResponseEntity.ok(switchBenchmark.run(warmupIterations, iterations, environments,
+                                                         Duration.ofMillis(timeBudgetMillis)));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            response.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    /**
+     * 读写并发负载测试
+     * readers个线程调用ConfigDemoService，writers个线程持续全局切换，返回吞吐量、延迟分位数和撕裂读取次数
+     * 线程数和时长的上限见ConfigLoadHarness，超出或存在属性覆盖时返回400
+     */
+    @PostMapping("/load")
+    public ResponseEntity<Map<String, Object>> loadTest(@RequestParam(defaultValue = "4") int readers,
+                                                        @RequestParam(defaultValue = "1") int writers,
+                                                        @RequestParam(defaultValue = "2000") long durationMillis,
+                                                        @RequestParam(defaultValue = "0") long switchIntervalMicros)
+            throws InterruptedException {
+        try {
+            return ResponseEntity.ok(loadHarness.run(readers, writers, Duration.ofMillis(durationMillis),
+                                                     Duration.of(switchIntervalMicros, ChronoUnit.MICROS)));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            response.put("timestamp", System.currentTimeMillis());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
     /**
      * 捕获当前配置状态
      */
@@ -2,6 +2,8 @@ package com.example.service;
 
 import com.example.config.DynamicConfigManager;
 import com.example.config.AppConfig;
+import com.example.config.ConfigKey;
+import com.example.config.ConfigSnapshot;
 import com.example.config.EnvironmentChangeEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,9 +24,17 @@ public class ConfigDemoService {
 
     private final DynamicConfigManager configManager;
 
+    // 每次请求都会读取的API配置，启动时解析为句柄
+    private final ConfigKey<String> apiBaseUrl;
+    private final ConfigKey<Integer> apiTimeout;
+    private final ConfigKey<Integer> apiRetryCount;
+
     @Autowired
     public ConfigDemoService(DynamicConfigManager configManager) {
         this.configManager = configManager;
+        this.apiBaseUrl = configManager.key("app.api.base-url", String.class);
+        this.apiTimeout = configManager.key("app.api.timeout", Integer.class, 0);
+        this.apiRetryCount = configManager.key("app.api.retry-count", Integer.class, 0);
     }
 
     /**
@@ -57,10 +67,11 @@ public class ConfigDemoService {
      * 模拟API调用
      */
     public String callExternalApi() {
-        AppConfig config = configManager.getCurrentConfig();
-        String baseUrl = config.getApi().getBaseUrl();
-        int timeout = config.getApi().getTimeout();
-        int retryCount = config.getApi().getRetryCount();
+        // 从同一个快照读取，保证三个值来自同一环境
+        ConfigSnapshot snapshot = configManager.getCurrentSnapshot();
+        String baseUrl = apiBaseUrl.get(snapshot);
+        int timeout = apiTimeout.get(snapshot);
+        int retryCount = apiRetryCount.get(snapshot);
 
         logger.info("调用外部API: URL={}, Timeout={}ms, Retry={}", baseUrl, timeout, retryCount);
         return String.format("调用API: %s (超时: %dms, 重试: %d次)", baseUrl, timeout, retryCount);
@@ -119,8 +130,14 @@ public class ConfigDemoService {
      */
     @EventListener
     public void handleEnvironmentChange(EnvironmentChangeEvent event) {
-        logger.info("检测到环境切换: {} -> {}", event.getOldEnvironment(), event.getNewEnvironment());
-        
+        logger.info("检测到环境切换: {} -> {}, 变化分组: {}",
+                   event.getOldEnvironment(), event.getNewEnvironment(), event.getChangedSections());
+
+        if (!event.hasChanges()) {
+            logger.info("配置内容没有变化，跳过处理");
+            return;
+        }
+
         // 根据新环境执行相应的业务逻辑
         String newEnv = event.getNewEnvironment();
         switch (newEnv) {
@@ -137,8 +154,34 @@ public class ConfigDemoService {
                 logger.warn("未知环境: {}", newEnv);
         }
         
-        // 输出新配置摘要
-        logger.info("新环境配置:\n{}", getConfigSummary());
+        // 只输出发生变化的配置分组
+        logger.info("新环境配置:\n{}", getChangedConfigSummary(event));
+    }
+
+    /**
+     * 获取发生变化部分的配置摘要
+     */
+    private String getChangedConfigSummary(EnvironmentChangeEvent event) {
+        StringBuilder summary = new StringBuilder();
+        summary.append("=== 变化的配置摘要 ===\n");
+        if (event.isSectionChanged("database")) {
+            summary.append(connectToDatabase()).append("\n");
+        }
+        if (event.isSectionChanged("redis")) {
+            summary.append(connectToRedis()).append("\n");
+        }
+        if (event.isSectionChanged("api")) {
+            summary.append(callExternalApi()).append("\n");
+        }
+        if (event.isSectionChanged("feature")) {
+            summary.append(checkFeatureFlags()).append("\n");
+        }
+        if (event.isSectionChanged("notification")) {
+            summary.append(checkNotificationConfig()).append("\n");
+        }
+        summary.append("==================");
+
+        return summary.toString();
     }
 
     private void handleProductionEnvironment() {
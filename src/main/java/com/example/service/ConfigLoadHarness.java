@@ -0,0 +1,373 @@
+package com.example.service;
+
+import com.example.config.AppConfig;
+import com.example.config.ConfigSnapshot;
+import com.example.config.DynamicConfigManager;
+import com.example.config.LatencySummary;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 进程内负载测试
+ * N个读线程循环调用ConfigDemoService的方法，M个写线程循环执行全局切换，
+ * 统计读取和切换的吞吐量、延迟分位数（HdrHistogram，见LatencySummary），并检测撕裂读取：
+ * 同一次读取得到的几个配置值不属于同一个环境
+ *
+ * 撕裂检测分两处：
+ * - service：解析connectToDatabase()和callExternalApi()的返回值，URL与连接池大小、API地址与超时时间
+ *   必须同时属于参与测试的某个环境
+ * - sharedInstance：直接注入的AppConfig实例，切换时原地更新，读线程可能看到新旧混合的值
+ * 参与测试的环境是写线程轮流切换的环境（没有写线程时只有当前环境），写线程本来就会加载它们
+ *
+ * 写线程的全局切换会丢弃属性覆盖及其回滚历史，存在属性覆盖时拒绝运行
+ *
+ * ConfigDemoService每次调用都输出INFO日志，测量前应将 com.example 的日志级别调到WARN，否则延迟主要是日志开销
+ */
+@Service
+public class ConfigLoadHarness {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfigLoadHarness.class);
+
+    /**
+     * 读线程数上限
+     */
+    public static final int MAX_READERS = 64;
+
+    /**
+     * 写线程数上限
+     */
+    public static final int MAX_WRITERS = 8;
+
+    /**
+     * 单次测试的最长时长，写线程间隔也不能超过它
+     */
+    public static final Duration MAX_DURATION = Duration.ofMinutes(5);
+
+    // 与ConfigDemoService中的输出格式对应
+    private static final Pattern DATABASE_RESULT = Pattern.compile("已连接到数据库: (.*) \\(用户: .*, 最大连接数: (-?\\d+)\\)");
+    private static final Pattern API_RESULT = Pattern.compile("调用API: (.*) \\(超时: (-?\\d+)ms, 重试: -?\\d+次\\)");
+
+    private final DynamicConfigManager configManager;
+    private final ConfigDemoService demoService;
+    private final AppConfig sharedConfig;
+
+    // 同一时间只运行一个负载测试，写线程会改变全局环境
+    private final ReentrantLock runLock = new ReentrantLock();
+
+    @Autowired
+    public ConfigLoadHarness(DynamicConfigManager configManager, ConfigDemoService demoService,
+                             AppConfig sharedConfig) {
+        this.configManager = configManager;
+        this.demoService = demoService;
+        this.sharedConfig = sharedConfig;
+    }
+
+    /**
+     * 运行一次负载测试，结束后恢复原来的全局环境
+     *
+     * @param readers 读线程数，1到MAX_READERS
+     * @param writers 写线程数，0到MAX_WRITERS，0表示只测读取
+     * @param duration 测量时长，不超过MAX_DURATION
+     * @param switchInterval 写线程两次切换之间的间隔，ZERO表示不停地切换
+     * @return 测试报告
+     * @throws IllegalArgumentException 参数不合法
+     * @throws IllegalStateException 已有负载测试在运行，或存在属性覆盖
+     */
+    public Map<String, Object> run(int readers, int writers, Duration duration, Duration switchInterval)
+            throws InterruptedException {
+        if (readers < 1 || readers > MAX_READERS || writers < 0 || writers > MAX_WRITERS
+                || duration.isZero() || duration.isNegative() || duration.compareTo(MAX_DURATION) > 0
+                || switchInterval.isNegative() || switchInterval.compareTo(MAX_DURATION) > 0) {
+            throw new IllegalArgumentException("readers必须在1到" + MAX_READERS + "之间，writers必须在0到" + MAX_WRITERS
+                    + "之间，duration必须大于0且不超过" + MAX_DURATION.toMinutes() + "分钟");
+        }
+        if (!runLock.tryLock()) {
+            throw new IllegalStateException("已有负载测试在运行");
+        }
+        try {
+            if (!configManager.getActiveOverrides().isEmpty()) {
+                throw new IllegalStateException("当前存在属性覆盖，全局切换会将其丢弃，请先清除属性覆盖");
+            }
+            return execute(readers, writers, duration, switchInterval);
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    private Map<String, Object> execute(int readers, int writers, Duration duration, Duration switchInterval)
+            throws InterruptedException {
+        String originalEnvironment = configManager.getCurrentEnvironment();
+        List<String> environments = new ArrayList<>(configManager.getSupportedEnvironments());
+        environments.sort(null);
+        Expectations expectations = Expectations.of(configManager,
+                writers > 0 ? environments : List.of(originalEnvironment));
+
+        logger.info("开始负载测试: 读线程={}, 写线程={}, 时长={}ms, 环境={}",
+                   readers, writers, duration.toMillis(), environments);
+
+        CountDownLatch startGate = new CountDownLatch(1);
+        RunFlag flag = new RunFlag();
+        List<Supplier<String>> operations = List.of(
+                demoService::connectToDatabase,
+                demoService::connectToRedis,
+                demoService::callExternalApi,
+                demoService::checkFeatureFlags,
+                demoService::checkNotificationConfig);
+
+        ReaderTask[] readerTasks = new ReaderTask[readers];
+        WriterTask[] writerTasks = new WriterTask[writers];
+        List<Thread> threads = new ArrayList<>(readers + writers);
+        for (int i = 0; i < readers; i++) {
+            readerTasks[i] = new ReaderTask(startGate, flag, operations, i, expectations);
+            threads.add(new Thread(readerTasks[i], "config-load-reader-" + i));
+        }
+        for (int i = 0; i < writers; i++) {
+            writerTasks[i] = new WriterTask(startGate, flag, environments, i, switchInterval.toNanos());
+            threads.add(new Thread(writerTasks[i], "config-load-writer-" + i));
+        }
+
+        long elapsedNanos;
+        try {
+            for (Thread thread : threads) {
+                thread.setDaemon(true);
+                thread.start();
+            }
+            long start = System.nanoTime();
+            startGate.countDown();
+            TimeUnit.NANOSECONDS.sleep(duration.toNanos());
+            flag.stopped = true;
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            elapsedNanos = System.nanoTime() - start;
+        } finally {
+            flag.stopped = true;
+            configManager.switchEnvironment(originalEnvironment);
+        }
+
+        Map<String, Object> report = buildReport(readerTasks, writerTasks, elapsedNanos);
+        report.put("readers", readers);
+        report.put("writers", writers);
+        report.put("switchIntervalMicros", TimeUnit.NANOSECONDS.toMicros(switchInterval.toNanos()));
+        report.put("environments", environments);
+        logger.info("负载测试完成: {}", report);
+        return report;
+    }
+
+    private Map<String, Object> buildReport(ReaderTask[] readerTasks, WriterTask[] writerTasks, long elapsedNanos) {
+        Histogram readLatency = LatencySummary.newHistogram();
+        long readErrors = 0;
+        long tornService = 0;
+        long tornShared = 0;
+        for (ReaderTask task : readerTasks) {
+            readLatency.add(task.latency);
+            readErrors += task.errors;
+            tornService += task.tornService;
+            tornShared += task.tornShared;
+        }
+
+        Histogram switchLatency = LatencySummary.newHistogram();
+        long switchFailures = 0;
+        for (WriterTask task : writerTasks) {
+            switchLatency.add(task.latency);
+            switchFailures += task.failures;
+        }
+
+        Map<String, Object> reads = summary(readLatency, elapsedNanos);
+        reads.put("errors", readErrors);
+
+        Map<String, Object> switches = summary(switchLatency, elapsedNanos);
+        switches.put("failures", switchFailures);
+
+        Map<String, Object> tornReads = new LinkedHashMap<>();
+        tornReads.put("service", tornService);
+        tornReads.put("sharedInstance", tornShared);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("durationMillis", TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        report.put("reads", reads);
+        report.put("switches", switches);
+        report.put("tornReads", tornReads);
+        report.put("timestamp", System.currentTimeMillis());
+        return report;
+    }
+
+    private static Map<String, Object> summary(Histogram histogram, long elapsedNanos) {
+        long count = histogram.getTotalCount();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("operations", count);
+        summary.put("throughputPerSecond", elapsedNanos == 0 ? 0.0 : count * 1_000_000_000.0 / elapsedNanos);
+        summary.putAll(LatencySummary.of(histogram));
+        return summary;
+    }
+
+    private static void awaitStart(CountDownLatch startGate) {
+        try {
+            startGate.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class RunFlag {
+        volatile boolean stopped;
+    }
+
+    /**
+     * 参与测试的各环境中成对出现的配置值，读线程只读
+     */
+    private static final class Expectations {
+
+        private final Set<String> databases = new HashSet<>();
+        private final Set<String> apis = new HashSet<>();
+        private final Set<String> databaseUrls = new HashSet<>();
+
+        static Expectations of(DynamicConfigManager configManager, List<String> environments) {
+            Expectations expectations = new Expectations();
+            for (String env : environments) {
+                ConfigSnapshot snapshot = configManager.resolveSnapshot(env);
+                if (snapshot == null) {
+                    continue;
+                }
+                AppConfig config = snapshot.getConfig();
+                expectations.databases.add(pair(config.getDatabase().getUrl(), config.getDatabase().getPool().getMaxSize()));
+                expectations.apis.add(pair(config.getApi().getBaseUrl(), config.getApi().getTimeout()));
+                expectations.databaseUrls.add(config.getDatabase().getUrl());
+            }
+            return expectations;
+        }
+
+        private static String pair(String value, int number) {
+            return value + "|" + number;
+        }
+
+        /**
+         * connectToDatabase()或callExternalApi()的返回值中，两个配置值不属于同一个环境
+         */
+        boolean isTornResult(String result) {
+            Matcher matcher = DATABASE_RESULT.matcher(result);
+            if (matcher.matches()) {
+                return !databases.contains(pair(matcher.group(1), Integer.parseInt(matcher.group(2))));
+            }
+            matcher = API_RESULT.matcher(result);
+            if (matcher.matches()) {
+                return !apis.contains(pair(matcher.group(1), Integer.parseInt(matcher.group(2))));
+            }
+            return false;
+        }
+
+        /**
+         * 共享实例：URL属于某个环境，但连接池大小对不上时视为撕裂
+         */
+        boolean isTorn(AppConfig.DatabaseConfig database) {
+            String url = database.getUrl();
+            return databaseUrls.contains(url) && !databases.contains(pair(url, database.getPool().getMaxSize()));
+        }
+    }
+
+    /**
+     * 读线程：轮流调用业务方法并计时，核对业务方法的返回值和共享AppConfig实例中的数据库配置
+     * 统计数据只由本线程写入，join之后由调用线程汇总
+     */
+    private final class ReaderTask implements Runnable {
+
+        private final CountDownLatch startGate;
+        private final RunFlag flag;
+        private final List<Supplier<String>> operations;
+        private final Expectations expectations;
+        private final Histogram latency = LatencySummary.newHistogram();
+        private int next;
+        private long errors;
+        private long tornService;
+        private long tornShared;
+
+        ReaderTask(CountDownLatch startGate, RunFlag flag, List<Supplier<String>> operations, int offset,
+                   Expectations expectations) {
+            this.startGate = startGate;
+            this.flag = flag;
+            this.operations = operations;
+            this.next = offset;
+            this.expectations = expectations;
+        }
+
+        @Override
+        public void run() {
+            awaitStart(startGate);
+            while (!flag.stopped) {
+                Supplier<String> operation = operations.get(next++ % operations.size());
+                long start = System.nanoTime();
+                String result = null;
+                try {
+                    result = operation.get();
+                } catch (RuntimeException e) {
+                    errors++;
+                }
+                latency.recordValue(System.nanoTime() - start);
+
+                if (result != null && expectations.isTornResult(result)) {
+                    tornService++;
+                }
+                if (expectations.isTorn(sharedConfig.getDatabase())) {
+                    tornShared++;
+                }
+            }
+        }
+    }
+
+    /**
+     * 写线程：按环境列表轮流执行全局切换并计时
+     */
+    private final class WriterTask implements Runnable {
+
+        private final CountDownLatch startGate;
+        private final RunFlag flag;
+        private final List<String> environments;
+        private final long intervalNanos;
+        private final Histogram latency = LatencySummary.newHistogram();
+        private int next;
+        private long failures;
+
+        WriterTask(CountDownLatch startGate, RunFlag flag, List<String> environments, int offset,
+                   long intervalNanos) {
+            this.startGate = startGate;
+            this.flag = flag;
+            this.environments = environments;
+            this.next = offset;
+            this.intervalNanos = intervalNanos;
+        }
+
+        @Override
+        public void run() {
+            awaitStart(startGate);
+            while (!flag.stopped) {
+                String env = environments.get(next++ % environments.size());
+                long start = System.nanoTime();
+                if (!configManager.switchEnvironment(env)) {
+                    failures++;
+                }
+                latency.recordValue(System.nanoTime() - start);
+                if (intervalNanos > 0) {
+                    LockSupport.parkNanos(intervalNanos);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.example.service;
+
+import com.example.config.ConfigScope;
+import com.example.config.DynamicConfigManager;
+import com.example.config.LatencySummary;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 环境切换耗时测量
+ * 对每一对环境（from -> to）分别执行预热和正式迭代，用System.nanoTime()记录每次切换，
+ * 按作用域和环境对汇总 min/mean/p50/p99/max（微秒，见LatencySummary），用于对比不同版本的切换性能
+ *
+ * - 全局切换：先切到from（不计时），再计时切到to
+ * - 临时切换：先临时切到from（不计时），再计时临时切到to，之后清除临时配置
+ *
+ * 测量在调用线程上同步执行：环境对数量不超过MAX_PAIRS（环境较多时显式指定要测量的环境），
+ * 总耗时不超过时间预算，到期后停止并在报告中标记truncated
+ * 只加载参与测量的环境
+ *
+ * 全局切换会丢弃属性覆盖及其回滚历史，存在属性覆盖时拒绝运行
+ *
+ * 全局切换每次都记录INFO日志，测量前应将 com.example 的日志级别调到WARN
+ */
+@Service
+public class ConfigSwitchBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConfigSwitchBenchmark.class);
+
+    /**
+     * 每对环境的最大正式迭代次数，限制单次测量的时长
+     */
+    public static final int MAX_ITERATIONS = 100_000;
+
+    /**
+     * 每对环境的最大预热次数
+     */
+    public static final int MAX_WARMUP_ITERATIONS = 10_000;
+
+    /**
+     * 最多测量的环境对数量，n个环境有n*(n-1)对
+     */
+    public static final int MAX_PAIRS = 20;
+
+    /**
+     * 默认的时间预算
+     */
+    public static final Duration DEFAULT_TIME_BUDGET = Duration.ofSeconds(30);
+
+    /**
+     * 时间预算上限
+     */
+    public static final Duration MAX_TIME_BUDGET = Duration.ofMinutes(5);
+
+    private static final ConfigScope[] SCOPES = {ConfigScope.GLOBAL, ConfigScope.TEMPORARY};
+
+    private final DynamicConfigManager configManager;
+
+    // 全局切换会改变全局环境，同一时间只运行一次测量
+    private final ReentrantLock runLock = new ReentrantLock();
+
+    @Autowired
+    public ConfigSwitchBenchmark(DynamicConfigManager configManager) {
+        this.configManager = configManager;
+    }
+
+    /**
+     * 在全部支持的环境之间运行一次测量，使用默认的时间预算
+     *
+     * @see #run(int, int, List, Duration)
+     */
+    public Map<String, Object> run(int warmupIterations, int iterations) {
+        return run(warmupIterations, iterations, null, DEFAULT_TIME_BUDGET);
+    }
+
+    /**
+     * 运行一次测量，结束后恢复原来的全局环境
+     *
+     * @param warmupIterations 每对环境的预热次数，0到MAX_WARMUP_ITERATIONS，不计入结果
+     * @param iterations 每对环境的正式迭代次数，1到MAX_ITERATIONS
+     * @param environments 参与测量的环境，至少两个；为null或空时使用全部支持的环境
+     * @param timeBudget 总耗时上限，不超过MAX_TIME_BUDGET，到期后停止测量
+     * @return 测量报告
+     * @throws IllegalArgumentException 参数不合法、环境不存在，或环境对超过MAX_PAIRS
+     * @throws IllegalStateException 已有测量在运行，或存在属性覆盖
+     */
+    public Map<String, Object> run(int warmupIterations, int iterations, List<String> environments,
+                                   Duration timeBudget) {
+        if (warmupIterations < 0 || warmupIterations > MAX_WARMUP_ITERATIONS
+                || iterations < 1 || iterations > MAX_ITERATIONS) {
+            throw new IllegalArgumentException("warmupIterations必须在0到" + MAX_WARMUP_ITERATIONS
+                    + "之间，iterations必须在1到" + MAX_ITERATIONS + "之间");
+        }
+        if (timeBudget.isZero() || timeBudget.isNegative() || timeBudget.compareTo(MAX_TIME_BUDGET) > 0) {
+            throw new IllegalArgumentException("timeBudget必须大于0且不超过" + MAX_TIME_BUDGET.toMinutes() + "分钟");
+        }
+        List<String> selected = selectEnvironments(environments);
+        if (!runLock.tryLock()) {
+            throw new IllegalStateException("已有切换测量在运行");
+        }
+        try {
+            if (!configManager.getActiveOverrides().isEmpty()) {
+                throw new IllegalStateException("当前存在属性覆盖，全局切换会将其丢弃，请先清除属性覆盖");
+            }
+            return execute(warmupIterations, iterations, selected, timeBudget);
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    /**
+     * 校验参与测量的环境，去重后排序
+     */
+    private List<String> selectEnvironments(List<String> environments) {
+        List<String> selected;
+        if (environments == null || environments.isEmpty()) {
+            selected = new ArrayList<>(configManager.getSupportedEnvironments());
+        } else {
+            selected = new ArrayList<>(new LinkedHashSet<>(environments));
+            for (String env : selected) {
+                if (configManager.resolveSnapshot(env) == null) {
+                    throw new IllegalArgumentException("不支持的环境: " + env);
+                }
+            }
+        }
+        selected.sort(null);
+        int pairs = selected.size() * (selected.size() - 1);
+        if (pairs < 1) {
+            throw new IllegalArgumentException("至少需要两个环境");
+        }
+        if (pairs > MAX_PAIRS) {
+            throw new IllegalArgumentException(selected.size() + "个环境有" + pairs + "对，超过上限" + MAX_PAIRS
+                    + "，请通过environments指定要测量的环境");
+        }
+        return selected;
+    }
+
+    private Map<String, Object> execute(int warmupIterations, int iterations, List<String> environments,
+                                        Duration timeBudget) {
+        String originalEnvironment = configManager.getCurrentEnvironment();
+        long deadline = System.nanoTime() + timeBudget.toNanos();
+        List<String[]> pairs = new ArrayList<>();
+        for (String from : environments) {
+            for (String to : environments) {
+                if (!from.equals(to)) {
+                    pairs.add(new String[]{from, to});
+                }
+            }
+        }
+
+        logger.info("开始切换耗时测量: 预热={}, 迭代={}, 环境对={}", warmupIterations, iterations, pairs.size());
+
+        Map<String, Object> scopes = new LinkedHashMap<>();
+        Map<String, Object> pairResults = new LinkedHashMap<>();
+        long failures = 0;
+        boolean truncated = false;
+        try {
+            for (ConfigScope scope : SCOPES) {
+                // 预热：所有环境对各跑warmupIterations次，让JIT和快照缓存就绪
+                for (int i = 0; i < warmupIterations && !truncated; i++) {
+                    for (String[] pair : pairs) {
+                        measure(scope, pair[0], pair[1]);
+                    }
+                    truncated = System.nanoTime() - deadline > 0;
+                }
+
+                // 正式迭代：环境对交替执行，避免同一对连续执行带来的偏差
+                Histogram[] samples = new Histogram[pairs.size()];
+                for (int p = 0; p < pairs.size(); p++) {
+                    samples[p] = LatencySummary.newHistogram();
+                }
+                for (int i = 0; i < iterations && !truncated; i++) {
+                    for (int p = 0; p < pairs.size(); p++) {
+                        long nanos = measure(scope, pairs.get(p)[0], pairs.get(p)[1]);
+                        if (nanos < 0) {
+                            failures++;
+                            nanos = -nanos;
+                        }
+                        samples[p].recordValue(nanos);
+                    }
+                    // 每轮（所有环境对各一次）结束时检查预算，各环境对的样本数保持一致
+                    truncated = System.nanoTime() - deadline > 0;
+                }
+
+                Map<String, Object> byPair = new LinkedHashMap<>();
+                Histogram all = LatencySummary.newHistogram();
+                for (int p = 0; p < pairs.size(); p++) {
+                    byPair.put(pairs.get(p)[0] + "->" + pairs.get(p)[1], LatencySummary.of(samples[p]));
+                    all.add(samples[p]);
+                }
+                scopes.put(scope.getCode(), LatencySummary.of(all));
+                pairResults.put(scope.getCode(), byPair);
+            }
+        } finally {
+            configManager.clearTemporaryConfig();
+            configManager.switchEnvironment(originalEnvironment);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("warmupIterations", warmupIterations);
+        report.put("iterations", iterations);
+        report.put("environments", environments);
+        report.put("timeBudgetMillis", timeBudget.toMillis());
+        report.put("truncated", truncated);
+        report.put("failures", failures);
+        report.put("scopes", scopes);
+        report.put("pairs", pairResults);
+        report.put("timestamp", System.currentTimeMillis());
+        logger.info("切换耗时测量完成: {}", scopes);
+        return report;
+    }
+
+    /**
+     * 从from切换到to并返回耗时（纳秒），切换失败时返回负数
+     */
+    private long measure(ConfigScope scope, String from, String to) {
+        configManager.switchEnvironment(from, scope);
+        long start = System.nanoTime();
+        boolean success = configManager.switchEnvironment(to, scope);
+        long nanos = System.nanoTime() - start;
+        if (scope == ConfigScope.TEMPORARY) {
+            configManager.clearTemporaryConfig();
+        }
+        return success ? nanos : -Math.max(1, nanos);
+    }
+}
@@ -1,13 +1,40 @@
 package com.example;
 
 import com.example.config.AppConfig;
+import com.example.config.ConfigContext;
+import com.example.config.ConfigKey;
+import com.example.config.ConfigRequestFilter;
+import com.example.config.ConfigScope;
+import com.example.config.ConfigSnapshot;
+import com.example.config.ConfigSnapshotRegistry;
 import com.example.config.DynamicConfigManager;
+import com.example.config.ReactiveConfigManager;
+import com.example.service.ConfigSwitchBenchmark;
+import jakarta.servlet.http.Cookie;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.context.TestPropertySource;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
 
 /**
  * 应用测试类
@@ -22,6 +49,27 @@ class ApplicationTest {
     @Autowired
     private DynamicConfigManager configManager;
 
+    @Autowired
+    private ConfigSnapshotRegistry snapshotRegistry;
+
+    @Autowired
+    private ConfigurableEnvironment environment;
+
+    @Autowired
+    private ConfigRequestFilter requestFilter;
+
+    @Autowired
+    private ConfigContext configContext;
+
+    @Autowired
+    private ReactiveConfigManager reactiveConfigManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ConfigSwitchBenchmark switchBenchmark;
+
     @Test
     void contextLoads() {
         assertNotNull(appConfig);
@@ -54,6 +102,402 @@ class ApplicationTest {
         assertEquals(originalEnv, configManager.getCurrentEnvironment());
     }
 
+    @Test
+    void testSnapshotPublishedOnGlobalSwitch() {
+        String originalEnv = configManager.getCurrentEnvironment();
+        long originalVersion = configManager.getGlobalSnapshot().getVersion();
+
+        String targetEnv = "prod".equals(originalEnv) ? "test" : "prod";
+        assertTrue(configManager.switchEnvironment(targetEnv));
+
+        ConfigSnapshot snapshot = configManager.getGlobalSnapshot();
+        assertEquals(targetEnv, snapshot.getEnvironment());
+        assertTrue(snapshot.getVersion() > originalVersion);
+        assertSame(snapshot.getConfig(), configManager.getCurrentConfig());
+
+        assertTrue(configManager.switchEnvironment(originalEnv));
+        assertTrue(configManager.getGlobalSnapshot().getVersion() > snapshot.getVersion());
+    }
+
+    @Test
+    void testSwitchReusesCachedSnapshot() {
+        String originalEnv = configManager.getCurrentEnvironment();
+        String targetEnv = "prod".equals(originalEnv) ? "test" : "prod";
+
+        ConfigSnapshot cached = snapshotRegistry.get(targetEnv);
+        assertTrue(snapshotRegistry.isLoaded(targetEnv));
+
+        try {
+            // 来回切换都复用注册表中的同一个快照，不重新解析、绑定
+            assertTrue(configManager.switchEnvironment(targetEnv));
+            assertSame(cached.getConfig(), configManager.getCurrentConfig());
+            assertTrue(configManager.switchEnvironment(originalEnv));
+            assertTrue(configManager.switchEnvironment(targetEnv));
+            assertSame(cached.getConfig(), configManager.getCurrentConfig());
+            assertSame(cached, snapshotRegistry.get(targetEnv));
+        } finally {
+            configManager.switchEnvironment(originalEnv);
+        }
+    }
+
+    @Test
+    void testMissingKeyFallsBackToApplicationSources() {
+        Map<String, String> partial = new HashMap<>(snapshotRegistry.loadConfigProperties("dev"));
+        partial.remove("app.redis.host");
+        System.setProperty("app.redis.host", "fallback-redis.example.com");
+        System.setProperty("app.database.url", "jdbc:mysql://ignored:3306/ignored");
+        try {
+            AppConfig config = snapshotRegistry.bindConfig("dev", partial);
+            // 环境文件中没有的配置项回退到应用属性源
+            assertEquals("fallback-redis.example.com", config.getRedis().getHost());
+            // 环境文件中存在的配置项优先
+            assertEquals(partial.get("app.database.url"), config.getDatabase().getUrl());
+        } finally {
+            System.clearProperty("app.redis.host");
+            System.clearProperty("app.database.url");
+        }
+    }
+
+    @Test
+    void testTemporarySwitchIsIsolatedPerThread() throws Exception {
+        String globalEnv = configManager.getCurrentEnvironment();
+        String globalDbUrl = configManager.getCurrentConfig().getDatabase().getUrl();
+        int propertySourceCount = environment.getPropertySources().size();
+        String[] envs = {"dev", "prod", "test"};
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                String targetEnv = envs[i % envs.length];
+                results.add(executor.submit(() -> {
+                    try {
+                        configManager.switchEnvironment(targetEnv, ConfigScope.TEMPORARY);
+                        AppConfig expected = snapshotRegistry.get(targetEnv).getConfig();
+                        return expected.getDatabase().getUrl().equals(configManager.getCurrentConfig().getDatabase().getUrl());
+                    } finally {
+                        configManager.clearTemporaryConfig();
+                    }
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // 临时切换不影响全局配置，也不修改共享的Environment
+        assertEquals(globalEnv, configManager.getCurrentEnvironment());
+        assertEquals(globalDbUrl, configManager.getCurrentConfig().getDatabase().getUrl());
+        assertEquals(propertySourceCount, environment.getPropertySources().size());
+    }
+
+    @Test
+    void testConfigKeyFollowsEffectiveScope() {
+        ConfigKey<Integer> timeout = configManager.key("app.api.timeout", Integer.class);
+        ConfigKey<String> port = configManager.key("app.redis.port", String.class);
+        ConfigKey<Long> missing = configManager.key("app.api.missing", Long.class, 42L);
+
+        AppConfig global = configManager.getCurrentConfig();
+        assertEquals(global.getApi().getTimeout(), timeout.get());
+        assertEquals(String.valueOf(global.getRedis().getPort()), port.get());
+        assertEquals(42L, missing.get());
+
+        String targetEnv = "test".equals(configManager.getCurrentEnvironment()) ? "prod" : "test";
+        try {
+            configManager.switchEnvironment(targetEnv, ConfigScope.TEMPORARY);
+            AppConfig temporary = snapshotRegistry.get(targetEnv).getConfig();
+            assertEquals(temporary.getApi().getTimeout(), timeout.get());
+            assertEquals(String.valueOf(temporary.getRedis().getPort()), port.get());
+        } finally {
+            configManager.clearTemporaryConfig();
+        }
+
+        assertEquals(global.getApi().getTimeout(), timeout.get());
+    }
+
+    @Test
+    void testRequestScopeIsClearedAfterRequest() throws Exception {
+        String globalEnv = configManager.getCurrentEnvironment();
+        String targetEnv = "test".equals(globalEnv) ? "prod" : "test";
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/config/current");
+        request.addHeader("X-Config-Env", targetEnv);
+        AtomicReference<String> seen = new AtomicReference<>();
+        requestFilter.doFilter(request, new MockHttpServletResponse(),
+                               (req, res) -> seen.set(configManager.getCurrentSnapshot().getEnvironment()));
+
+        assertEquals(targetEnv, seen.get());
+        assertFalse(configManager.hasRequestConfig());
+        assertEquals(globalEnv, configManager.getCurrentSnapshot().getEnvironment());
+
+        MockHttpServletRequest invalid = new MockHttpServletRequest("GET", "/api/config/current");
+        invalid.addHeader("X-Config-Env", "no-such-env");
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        requestFilter.doFilter(invalid, rejected, (req, res) -> fail("不支持的环境不应进入后续处理"));
+        assertEquals(400, rejected.getStatus());
+    }
+
+    @Test
+    void testRequestCookieSelectsEnvironment() throws Exception {
+        String globalEnv = configManager.getCurrentEnvironment();
+        String targetEnv = "test".equals(globalEnv) ? "prod" : "test";
+        AtomicReference<ConfigSnapshot> seen = new AtomicReference<>();
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/config/current");
+        request.setCookies(new Cookie("config-env", targetEnv));
+        requestFilter.doFilter(request, new MockHttpServletResponse(),
+                               (req, res) -> seen.set(configManager.getCurrentSnapshot()));
+
+        // 直接使用缓存的环境快照，不重新绑定
+        assertSame(snapshotRegistry.get(targetEnv), seen.get());
+        assertFalse(configManager.hasRequestConfig());
+
+        // 请求头优先于Cookie
+        MockHttpServletRequest both = new MockHttpServletRequest("GET", "/api/config/current");
+        both.addHeader("X-Config-Env", globalEnv);
+        both.setCookies(new Cookie("config-env", targetEnv));
+        requestFilter.doFilter(both, new MockHttpServletResponse(),
+                               (req, res) -> seen.set(configManager.getCurrentSnapshot()));
+        assertEquals(globalEnv, seen.get().getEnvironment());
+    }
+
+    @Test
+    void testContextPropagatesToExecutorTasks() throws Exception {
+        String globalEnv = configManager.getCurrentEnvironment();
+        String targetEnv = "test".equals(globalEnv) ? "prod" : "test";
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        ExecutorService contextPool = configContext.wrap(pool);
+
+        try {
+            configManager.switchEnvironment(targetEnv, ConfigScope.TEMPORARY);
+            assertEquals(targetEnv, contextPool.submit(() -> configManager.getCurrentSnapshot().getEnvironment()).get());
+            assertEquals(targetEnv, CompletableFuture.supplyAsync(
+                    () -> configManager.getCurrentSnapshot().getEnvironment(), contextPool).get());
+            // 未包装的提交仍使用全局配置
+            assertEquals(globalEnv, pool.submit(() -> configManager.getCurrentSnapshot().getEnvironment()).get());
+        } finally {
+            configManager.clearTemporaryConfig();
+        }
+
+        // 任务结束后池中线程不保留调用方的配置
+        assertEquals(globalEnv, pool.submit(() -> configManager.getCurrentSnapshot().getEnvironment()).get());
+        assertFalse(pool.submit(configManager::hasTemporaryConfig).get());
+        pool.shutdown();
+    }
+
+    @Test
+    void testContextWinsOverWorkerRequestConfig() {
+        String globalEnv = configManager.getCurrentEnvironment();
+        String requestEnv = "test".equals(globalEnv) ? "prod" : "test";
+        String propagatedEnv = Stream.of("dev", "test", "prod")
+                .filter(env -> !env.equals(globalEnv) && !env.equals(requestEnv))
+                .findFirst().orElseThrow();
+        ConfigSnapshot requestSnapshot = snapshotRegistry.get(requestEnv);
+        ConfigSnapshot propagated = snapshotRegistry.get(propagatedEnv);
+
+        configManager.bindRequestSnapshot(requestSnapshot);
+        try {
+            // 执行线程已有请求级配置时，传入的快照仍然生效
+            configContext.run(propagated,
+                    () -> assertSame(propagated, configManager.getCurrentSnapshot()));
+            configContext.run(null,
+                    () -> assertEquals(globalEnv, configManager.getCurrentSnapshot().getEnvironment()));
+
+            // 结束后恢复执行线程原来的请求级配置
+            assertSame(requestSnapshot, configManager.getCurrentSnapshot());
+            assertTrue(configManager.hasRequestConfig());
+            assertFalse(configManager.hasTemporaryConfig());
+        } finally {
+            configManager.clearRequestConfig();
+        }
+    }
+
+    @Test
+    void testReactiveContextSelectsEnvironment() {
+        String globalEnv = configManager.getCurrentEnvironment();
+        String targetEnv = "test".equals(globalEnv) ? "prod" : "test";
+
+        assertEquals(globalEnv, reactiveConfigManager.currentEnvironment().block());
+        assertEquals(targetEnv, reactiveConfigManager.currentEnvironment()
+                .contextWrite(reactiveConfigManager.withEnvironment(targetEnv))
+                .block());
+        // 与Servlet一侧共享同一份缓存快照
+        assertSame(snapshotRegistry.get(targetEnv).getConfig(), reactiveConfigManager.currentConfig()
+                .contextWrite(reactiveConfigManager.withEnvironment(targetEnv))
+                .block());
+        // 阻塞代码通过DynamicConfigManager读取到订阅链的配置，执行后不残留
+        assertEquals(targetEnv, reactiveConfigManager.fromCallable(() -> configManager.getCurrentSnapshot().getEnvironment())
+                .contextWrite(reactiveConfigManager.withEnvironment(targetEnv))
+                .block());
+        assertFalse(configManager.hasTemporaryConfig());
+        assertThrows(IllegalArgumentException.class, () -> reactiveConfigManager.withEnvironment("no-such-env"));
+    }
+
+    @Test
+    void testReactiveReadsFailClearlyBeforeGlobalSnapshotExists() {
+        // 默认环境初始化失败时还没有全局快照
+        DynamicConfigManager uninitialized = mock(DynamicConfigManager.class);
+        ReactiveConfigManager reactive = new ReactiveConfigManager(uninitialized, snapshotRegistry, configContext);
+
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                                                   () -> reactive.currentEnvironment().block());
+        assertTrue(error.getMessage().contains("尚未初始化"));
+    }
+
+    @Test
+    void testOverridesPublishOneSnapshotAndRollBack() {
+        ConfigSnapshot before = configManager.getGlobalSnapshot();
+        int timeout = before.getConfig().getApi().getTimeout();
+        int maxSize = before.getConfig().getDatabase().getPool().getMaxSize();
+
+        try {
+            assertTrue(configManager.applyOverrides(Map.of("app.api.timeout", String.valueOf(timeout + 1),
+                                                           "app.database.pool.max-size", String.valueOf(maxSize + 1))));
+            ConfigSnapshot overridden = configManager.getGlobalSnapshot();
+            assertEquals(before.getEnvironment(), overridden.getEnvironment());
+            assertTrue(overridden.getVersion() > before.getVersion());
+            assertEquals(timeout + 1, overridden.getConfig().getApi().getTimeout());
+            assertEquals(maxSize + 1, overridden.getConfig().getDatabase().getPool().getMaxSize());
+            assertEquals(before.getConfig().getApi().getBaseUrl(), overridden.getConfig().getApi().getBaseUrl());
+            assertEquals(timeout + 1, appConfig.getApi().getTimeout());
+
+            // 无法绑定的值不发布
+            assertFalse(configManager.applyOverrides(Map.of("app.api.timeout", "not-a-number")));
+            assertSame(overridden, configManager.getGlobalSnapshot());
+
+            assertTrue(configManager.rollbackOverrides());
+            ConfigSnapshot rolledBack = configManager.getGlobalSnapshot();
+            assertSame(before.getConfig(), rolledBack.getConfig());
+            assertTrue(rolledBack.getVersion() > overridden.getVersion());
+            assertEquals(timeout, appConfig.getApi().getTimeout());
+            assertTrue(configManager.getActiveOverrides().isEmpty());
+        } finally {
+            while (configManager.rollbackOverrides()) {
+                // 恢复测试前的配置
+            }
+        }
+    }
+
+    @Test
+    void testOverridesRejectUnknownKeysAndNullValues() {
+        ConfigSnapshot before = configManager.getGlobalSnapshot();
+        Map<String, String> nullValue = new HashMap<>();
+        nullValue.put("app.api.timeout", null);
+
+        assertThrows(IllegalArgumentException.class,
+                     () -> configManager.applyOverrides(Map.of("app.api.timeuot", "100")));
+        assertThrows(IllegalArgumentException.class, () -> configManager.applyOverrides(nullValue));
+        // 整批校验，合法的键也不生效
+        assertThrows(IllegalArgumentException.class,
+                     () -> configManager.applyOverrides(Map.of("app.api.timeout", "100", "no.such.key", "1")));
+        assertSame(before, configManager.getGlobalSnapshot());
+
+        try {
+            // 宽松写法按规范键合并
+            int timeout = before.getConfig().getApi().getTimeout();
+            assertTrue(configManager.applyOverrides(Map.of("app.api.Timeout", String.valueOf(timeout + 1))));
+            assertEquals(Map.of("app.api.timeout", String.valueOf(timeout + 1)), configManager.getActiveOverrides());
+        } finally {
+            while (configManager.rollbackOverrides()) {
+                // 恢复测试前的配置
+            }
+        }
+    }
+
+    @Test
+    void testSwitchMetricsAreRecorded() {
+        String globalEnv = configManager.getCurrentEnvironment();
+        String targetEnv = "test".equals(globalEnv) ? "prod" : "test";
+        long successes = switchCount("temporary", "success");
+        long failures = switchCount("global", "failure");
+
+        try {
+            assertTrue(configManager.switchEnvironment(targetEnv, ConfigScope.TEMPORARY));
+        } finally {
+            configManager.clearTemporaryConfig();
+        }
+        assertFalse(configManager.switchEnvironment("no-such-env"));
+
+        assertEquals(successes + 1, switchCount("temporary", "success"));
+        assertEquals(failures + 1, switchCount("global", "failure"));
+        assertTrue(meterRegistry.get("config.switch.phase").tag("phase", "bind").timer().count() > 0);
+        assertNotNull(meterRegistry.get("config.switch.lock.wait").timer());
+    }
+
+    private long switchCount(String scope, String result) {
+        return meterRegistry.get("config.switch").tag("scope", scope).tag("result", result).timer().count();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSwitchBenchmarkReportsPercentilesPerPair() {
+        String originalEnv = configManager.getCurrentEnvironment();
+
+        Map<String, Object> report = switchBenchmark.run(2, 5);
+
+        assertEquals(0L, report.get("failures"));
+        Map<String, Object> scopes = (Map<String, Object>) report.get("scopes");
+        Map<String, Object> global = (Map<String, Object>) scopes.get("global");
+        assertEquals(30L, global.get("count"));
+        assertTrue((Double) global.get("minMicros") <= (Double) global.get("p50Micros"));
+        assertTrue((Double) global.get("p99Micros") <= (Double) global.get("maxMicros"));
+
+        Map<String, Object> pairs = (Map<String, Object>) report.get("pairs");
+        Map<String, Object> temporaryPairs = (Map<String, Object>) pairs.get("temporary");
+        assertEquals(6, temporaryPairs.size());
+        assertEquals(5L, ((Map<String, Object>) temporaryPairs.get("dev->prod")).get("count"));
+
+        assertEquals(originalEnv, configManager.getCurrentEnvironment());
+        assertFalse(configManager.hasTemporaryConfig());
+        assertThrows(IllegalArgumentException.class, () -> switchBenchmark.run(0, 0));
+        assertThrows(IllegalArgumentException.class,
+                     () -> switchBenchmark.run(ConfigSwitchBenchmark.MAX_WARMUP_ITERATIONS + 1, 1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSwitchBenchmarkHonoursEnvironmentListAndTimeBudget() {
+        String originalEnv = configManager.getCurrentEnvironment();
+
+        Map<String, Object> report = switchBenchmark.run(0, 3, List.of("prod", "dev", "prod"),
+                                                         ConfigSwitchBenchmark.DEFAULT_TIME_BUDGET);
+        assertEquals(List.of("dev", "prod"), report.get("environments"));
+        assertEquals(false, report.get("truncated"));
+        Map<String, Object> globalPairs = (Map<String, Object>) ((Map<String, Object>) report.get("pairs")).get("global");
+        assertEquals(Set.of("dev->prod", "prod->dev"), globalPairs.keySet());
+
+        // 迭代次数远超预算能完成的量，到期后停止
+        report = switchBenchmark.run(0, ConfigSwitchBenchmark.MAX_ITERATIONS, List.of("dev", "test"),
+                                     Duration.ofMillis(50));
+        assertEquals(true, report.get("truncated"));
+        Map<String, Object> global = (Map<String, Object>) ((Map<String, Object>) report.get("scopes")).get("global");
+        assertTrue((Long) global.get("count") < 2L * ConfigSwitchBenchmark.MAX_ITERATIONS);
+
+        assertEquals(originalEnv, configManager.getCurrentEnvironment());
+        assertThrows(IllegalArgumentException.class,
+                     () -> switchBenchmark.run(0, 1, List.of("dev", "no-such-env"), Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class,
+                     () -> switchBenchmark.run(0, 1, List.of("dev"), Duration.ofSeconds(1)));
+        assertThrows(IllegalArgumentException.class,
+                     () -> switchBenchmark.run(0, 1, null, ConfigSwitchBenchmark.MAX_TIME_BUDGET.plusMillis(1)));
+    }
+
+    @Test
+    void testSwitchBenchmarkRefusesToDropOverrides() {
+        int timeout = configManager.getCurrentConfig().getApi().getTimeout();
+        assertTrue(configManager.applyOverrides(Map.of("app.api.timeout", String.valueOf(timeout + 1))));
+        try {
+            assertThrows(IllegalStateException.class, () -> switchBenchmark.run(0, 1));
+            assertEquals(String.valueOf(timeout + 1), configManager.getActiveOverrides().get("app.api.timeout"));
+        } finally {
+            while (configManager.rollbackOverrides()) {
+                // 恢复测试前的配置
+            }
+        }
+    }
+
     @Test
     void testSupportedEnvironments() {
         var supportedEnvs = configManager.getSupportedEnvironments();
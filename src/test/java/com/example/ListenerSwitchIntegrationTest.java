@@ -0,0 +1,94 @@
+package com.example;
+
+import com.example.config.DynamicConfigManager;
+import com.example.config.EnvironmentChangeEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 监听器在自己的线程上触发切换
+ * 队列容量为1的BLOCK策略下，发布方等待监听器队列时，监听器的切换不能被发布方阻塞
+ */
+@SpringBootTest(properties = {
+        "dynamic-config.events.queue-capacity=1",
+        "dynamic-config.events.slow-listener-policy=block",
+        "dynamic-config.events.block-timeout=10s",
+        "logging.level.com.example=WARN"
+})
+class ListenerSwitchIntegrationTest {
+
+    @Autowired
+    private DynamicConfigManager configManager;
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Test
+    void listenerSwitchDoesNotWaitForBlockedPublisher() throws Exception {
+        String originalEnvironment = configManager.getCurrentEnvironment();
+        List<String> others = configManager.getSupportedEnvironments().stream()
+                .filter(env -> !env.equals(originalEnvironment))
+                .sorted()
+                .collect(Collectors.toList());
+        String first = others.get(0);
+        String second = others.get(1);
+
+        CountDownLatch publisherWaiting = new CountDownLatch(1);
+        CountDownLatch listenerSwitched = new CountDownLatch(1);
+        AtomicBoolean triggered = new AtomicBoolean();
+        List<String> received = new CopyOnWriteArrayList<>();
+        context.addApplicationListener((ApplicationListener<EnvironmentChangeEvent>) event -> {
+            received.add(event.getNewEnvironment());
+            if (event.getNewEnvironment().equals(first) && triggered.compareAndSet(false, true)) {
+                try {
+                    publisherWaiting.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                configManager.switchEnvironment(originalEnvironment);
+                listenerSwitched.countDown();
+            }
+        });
+
+        try {
+            // 监听器停在first的事件上，second的事件占满队列
+            assertTrue(configManager.switchEnvironment(first));
+            assertTrue(configManager.switchEnvironment(second));
+
+            // 第三次切换的发布方等待队列空位
+            Thread publisher = new Thread(() -> configManager.switchEnvironment(first), "blocked-publisher");
+            publisher.start();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (publisher.getState() != Thread.State.TIMED_WAITING && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            publisherWaiting.countDown();
+
+            // 远小于block-timeout：监听器的切换直接入队返回，发布方随后拿到空位
+            assertTrue(listenerSwitched.await(2, TimeUnit.SECONDS));
+            publisher.join(TimeUnit.SECONDS.toMillis(2));
+            assertFalse(publisher.isAlive());
+
+            // 监听器触发的切换事件由发布方按顺序发布，没有被丢弃
+            long waitUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (received.size() < 4 && System.nanoTime() < waitUntil) {
+                Thread.sleep(1);
+            }
+            assertEquals(List.of(first, second, first, originalEnvironment), received);
+        } finally {
+            configManager.switchEnvironment(originalEnvironment);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example;
+
+import com.example.config.ConfigSnapshot;
+import com.example.config.ConfigSnapshotRegistry;
+import com.example.config.DynamicConfigManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 租户配置集成测试
+ * acme 没有指定基础环境，跟随全局环境；globex 固定基于prod
+ */
+@SpringBootTest
+class TenantConfigIntegrationTest {
+
+    @TempDir
+    static Path tenantDirectory;
+
+    @Autowired
+    private DynamicConfigManager configManager;
+
+    @Autowired
+    private ConfigSnapshotRegistry snapshotRegistry;
+
+    @DynamicPropertySource
+    static void tenantProperties(DynamicPropertyRegistry registry) {
+        try {
+            Files.writeString(tenantDirectory.resolve("acme.properties"), "app.redis.host=acme-redis\n");
+            Files.writeString(tenantDirectory.resolve("globex.properties"),
+                              "tenant.environment=prod\napp.api.timeout=1234\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        registry.add("dynamic-config.tenant.directory", tenantDirectory::toString);
+    }
+
+    @Test
+    void tenantOverlaysApplyOnTopOfBaseEnvironment() {
+        ConfigSnapshot acme = configManager.getTenantSnapshot("acme");
+        assertEquals(configManager.getCurrentEnvironment(), acme.getEnvironment());
+        assertEquals("acme-redis", acme.getConfig().getRedis().getHost());
+        assertSame(acme, configManager.getTenantSnapshot("acme"));
+
+        ConfigSnapshot globex = configManager.getTenantSnapshot("globex");
+        assertEquals("prod", globex.getEnvironment());
+        assertEquals(1234, globex.getConfig().getApi().getTimeout());
+        assertEquals(snapshotRegistry.get("prod").getConfig().getDatabase().getUrl(),
+                     globex.getConfig().getDatabase().getUrl());
+
+        assertNull(configManager.getTenantSnapshot("unknown"));
+        assertNull(configManager.getTenantSnapshot("../acme"));
+        assertSame(configManager.getCurrentConfig(), configManager.getTenantConfig("unknown"));
+    }
+
+    @Test
+    void inheritingTenantsFollowGlobalSwitch() {
+        String originalEnv = configManager.getCurrentEnvironment();
+        String targetEnv = "prod".equals(originalEnv) ? "test" : "prod";
+        ConfigSnapshot globex = configManager.getTenantSnapshot("globex");
+        configManager.getTenantSnapshot("acme");
+
+        try {
+            assertTrue(configManager.switchEnvironment(targetEnv));
+
+            ConfigSnapshot acme = configManager.getTenantSnapshot("acme");
+            assertEquals(targetEnv, acme.getEnvironment());
+            assertEquals(snapshotRegistry.get(targetEnv).getConfig().getDatabase().getUrl(),
+                         acme.getConfig().getDatabase().getUrl());
+            assertEquals("acme-redis", acme.getConfig().getRedis().getHost());
+            // 指定了基础环境的租户不受全局切换影响
+            assertSame(globex, configManager.getTenantSnapshot("globex"));
+        } finally {
+            configManager.switchEnvironment(originalEnv);
+        }
+    }
+
+    @Test
+    void invalidateReloadsTenant() {
+        ConfigSnapshot before = configManager.getTenantSnapshot("globex");
+
+        assertTrue(configManager.invalidateTenant("globex"));
+
+        ConfigSnapshot after = configManager.getTenantSnapshot("globex");
+        assertNotSame(before, after);
+        assertEquals(1234, after.getConfig().getApi().getTimeout());
+    }
+}
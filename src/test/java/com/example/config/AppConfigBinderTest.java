@@ -0,0 +1,151 @@
+package com.example.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.BeanUtils;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.bind.DataObjectPropertyName;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+
+import java.beans.PropertyDescriptor;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AppConfigBinder测试
+ * 以Spring Binder的绑定结果为基准，检查属性表是否完整、转换规则是否一致
+ */
+class AppConfigBinderTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"dev", "prod", "test"})
+    void bindMatchesSpringBinder(String env) throws IOException {
+        Properties properties = PropertiesLoaderUtils.loadProperties(new ClassPathResource("config-" + env + ".properties"));
+
+        AppConfig expected = new Binder(new MapConfigurationPropertySource(properties))
+                .bind("app", AppConfig.class)
+                .get();
+        AppConfig actual = AppConfigBinder.bind(properties);
+
+        assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"dev", "prod", "test"})
+    void copyCoversAllFields(String env) throws IOException {
+        Properties properties = PropertiesLoaderUtils.loadProperties(new ClassPathResource("config-" + env + ".properties"));
+        AppConfig source = new Binder(new MapConfigurationPropertySource(properties))
+                .bind("app", AppConfig.class)
+                .get();
+
+        AppConfig target = new AppConfig();
+        AppConfigBinder.copy(source, target);
+
+        assertThat(target).usingRecursiveComparison().isEqualTo(source);
+    }
+
+    @Test
+    void tableCoversEveryAppConfigProperty() {
+        Set<String> expected = new HashSet<>();
+        collectKeys(AppConfig.class, "app", expected);
+
+        assertEquals(expected, new HashSet<>(AppConfigBinder.keys()));
+    }
+
+    /**
+     * 按JavaBean属性展开AppConfig，JDK类型和基本类型是配置项，其他类型是嵌套配置
+     */
+    private static void collectKeys(Class<?> type, String prefix, Set<String> keys) {
+        for (PropertyDescriptor descriptor : BeanUtils.getPropertyDescriptors(type)) {
+            if (descriptor.getReadMethod() == null || descriptor.getName().equals("class")) {
+                continue;
+            }
+            String key = prefix + "." + DataObjectPropertyName.toDashedForm(descriptor.getName());
+            Class<?> propertyType = descriptor.getPropertyType();
+            if (propertyType.isPrimitive() || propertyType.getName().startsWith("java.")) {
+                keys.add(key);
+            } else {
+                collectKeys(propertyType, key, keys);
+            }
+        }
+    }
+
+    @Test
+    void everyKeyIsDefinedInEnvironmentFiles() throws IOException {
+        Properties properties = PropertiesLoaderUtils.loadProperties(new ClassPathResource("config-dev.properties"));
+        for (String key : AppConfigBinder.keys()) {
+            assertTrue(properties.containsKey(key), "config-dev.properties缺少配置项: " + key);
+        }
+    }
+
+    @Test
+    void conversionFollowsSpringRules() {
+        AppConfig config = AppConfigBinder.bind(Map.of(
+                "app.redis.port", " 0x18EB ",
+                "app.feature.enable-cache", "on",
+                "app.feature.enable-debug", "NO",
+                "app.api.timeout", ""));
+
+        assertEquals(6379, config.getRedis().getPort());
+        assertTrue(config.getFeature().isEnableCache());
+        assertFalse(config.getFeature().isEnableDebug());
+        assertEquals(0, config.getApi().getTimeout());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> AppConfigBinder.bind(Map.of("app.api.retry-count", "three")));
+        assertThrows(IllegalArgumentException.class,
+                () -> AppConfigBinder.bind(Map.of("app.feature.enable-cache", "maybe")));
+    }
+
+    @Test
+    void relaxedKeysMatchSpringBinder() {
+        Map<String, String> properties = Map.of(
+                "app.database.pool.maxSize", "42",
+                "app.api.baseUrl", "https://relaxed.example.com",
+                "app.api.retryCount", "7",
+                "app.feature.enableCache", "true",
+                "app.redis.port", "6380");
+
+        AppConfig expected = new Binder(new MapConfigurationPropertySource(properties))
+                .bind("app", AppConfig.class)
+                .get();
+        AppConfig actual = AppConfigBinder.bind(properties);
+
+        assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
+        assertEquals(42, actual.getDatabase().getPool().getMaxSize());
+        assertEquals("https://relaxed.example.com", actual.getApi().getBaseUrl());
+
+        // 下划线写法
+        assertEquals(5, AppConfigBinder.bind(Map.of("app.database.pool.max_size", "5"))
+                .getDatabase().getPool().getMaxSize());
+    }
+
+    @Test
+    void canonicalKeyWinsOverRelaxedSpelling() {
+        AppConfig config = AppConfigBinder.bind(Map.of(
+                "app.api.timeout", "1000",
+                "app.api.TIMEOUT", "2000"));
+
+        assertEquals(1000, config.getApi().getTimeout());
+        assertEquals("app.database.pool.max-size", AppConfigBinder.canonicalKey("app.database.pool.max_size"));
+        assertNull(AppConfigBinder.canonicalKey("app.database.pool.maxSizee"));
+    }
+
+    @Test
+    void copyAcceptsRelaxedKeys() {
+        AppConfig source = AppConfigBinder.bind(Map.of("app.redis.host", "relaxed-host", "app.redis.port", "1"));
+        AppConfig target = new AppConfig();
+
+        assertEquals(1, AppConfigBinder.copy(source, target, Set.of("app.REDIS.host")));
+        assertEquals("relaxed-host", target.getRedis().getHost());
+    }
+}
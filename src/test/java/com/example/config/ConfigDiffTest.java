@@ -0,0 +1,86 @@
+package com.example.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.PropertySourcesPlaceholdersResolver;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 配置差异计算测试
+ */
+class ConfigDiffTest {
+
+    @Test
+    void changedKeysIncludeModifiedAddedAndRemoved() {
+        Map<String, String> oldProperties = Map.of(
+                "app.redis.host", "localhost",
+                "app.redis.port", "6379",
+                "app.api.timeout", "5000",
+                "app.feature.enable-debug", "true");
+        Map<String, String> newProperties = Map.of(
+                "app.redis.host", "localhost",
+                "app.redis.port", "6379",
+                "app.api.timeout", "3000",
+                "app.database.url", "jdbc:h2:mem:testdb");
+
+        Set<String> changed = ConfigDiff.changedKeys(oldProperties, newProperties);
+
+        assertEquals(Set.of("app.api.timeout", "app.database.url", "app.feature.enable-debug"), changed);
+        assertEquals(Set.of("api", "database", "feature"), ConfigDiff.sections(changed));
+    }
+
+    @Test
+    void placeholderTargetChangeIsReportedForReferencingKey() {
+        // base-url 的原始值相同，引用的 app.api.host 不同
+        Map<String, String> oldProperties = Map.of(
+                "app.api.host", "old.example.com",
+                "app.api.base-url", "https://${app.api.host}/v1",
+                "app.redis.host", "localhost");
+        Map<String, String> newProperties = Map.of(
+                "app.api.host", "new.example.com",
+                "app.api.base-url", "https://${app.api.host}/v1",
+                "app.redis.host", "localhost");
+
+        Set<String> changed = ConfigDiff.changedKeys(oldProperties, store(oldProperties),
+                                                     newProperties, store(newProperties));
+
+        assertEquals(Set.of("app.api.host", "app.api.base-url"), changed);
+        assertEquals(Set.of("api"), ConfigDiff.sections(changed));
+        // 只比较原始值时发现不了
+        assertFalse(ConfigDiff.changedKeys(oldProperties, newProperties).contains("app.api.base-url"));
+    }
+
+    @Test
+    void sameBoundValueIsNotAChange() {
+        Map<String, String> oldProperties = Map.of("app.redis.port", "6379", "app.feature.enable-cache", "true");
+        Map<String, String> newProperties = Map.of("app.redis.port", "0x18EB", "app.feature.enable-cache", "on");
+
+        assertEquals(Set.of(), ConfigDiff.changedKeys(oldProperties, store(oldProperties),
+                                                      newProperties, store(newProperties)));
+    }
+
+    private static ConfigStore store(Map<String, String> properties) {
+        PropertySourcesPlaceholdersResolver resolver = new PropertySourcesPlaceholdersResolver(
+                List.of(new MapPropertySource("properties", Map.<String, Object>copyOf(properties))));
+        return ConfigStore.from(AppConfigBinder.bind(properties, resolver));
+    }
+
+    @Test
+    void eventReportsUnchangedSections() {
+        EnvironmentChangeEvent event = new EnvironmentChangeEvent(this, "dev", "test", ConfigScope.GLOBAL,
+                Set.of("app.database.url", "app.redis.database"));
+
+        assertTrue(event.isSectionChanged("database"));
+        assertTrue(event.isSectionChanged("redis"));
+        assertFalse(event.isSectionChanged("notification"));
+
+        EnvironmentChangeEvent unknown = new EnvironmentChangeEvent(this, "dev", "test");
+        assertTrue(unknown.isSectionChanged("notification"));
+        assertTrue(unknown.hasChanges());
+    }
+}
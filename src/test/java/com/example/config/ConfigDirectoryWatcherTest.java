@@ -0,0 +1,97 @@
+package com.example.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * 外部配置目录监听测试
+ */
+class ConfigDirectoryWatcherTest {
+
+    private static final long DEBOUNCE_MILLIS = 200;
+
+    @TempDir
+    Path configDirectory;
+
+    private DynamicConfigManager configManager;
+    private ConfigEnvironmentIndex environmentIndex;
+    private ConfigDirectoryWatcher watcher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        DynamicConfigProperties properties = new DynamicConfigProperties();
+        properties.setConfigDirectory(configDirectory.toString());
+        properties.getWatch().setEnabled(true);
+        properties.getWatch().setDebounceMillis(DEBOUNCE_MILLIS);
+
+        configManager = mock(DynamicConfigManager.class);
+        when(configManager.reloadEnvironment(anyString())).thenReturn(true);
+        when(configManager.isEnvironmentInUse(anyString())).thenReturn(true);
+        environmentIndex = new ConfigEnvironmentIndex(properties);
+        watcher = new ConfigDirectoryWatcher(configManager, environmentIndex, properties);
+        watcher.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        watcher.stop();
+    }
+
+    @Test
+    void coalescesBurstOfWritesIntoOneReload() throws Exception {
+        Path file = configDirectory.resolve("config-eu-west.properties");
+        for (int i = 0; i < 5; i++) {
+            Files.writeString(file, "app.api.timeout=" + i + "\n");
+            Thread.sleep(DEBOUNCE_MILLIS / 5);
+        }
+
+        verify(configManager, timeout(5000)).reloadEnvironment("eu-west");
+        // 去抖窗口过后不应再有第二次重新加载
+        Thread.sleep(DEBOUNCE_MILLIS * 3);
+        verify(configManager, times(1)).reloadEnvironment(anyString());
+        assertTrue(environmentIndex.contains("eu-west"));
+    }
+
+    @Test
+    void ignoresFilesThatAreNotEnvironmentFiles() throws Exception {
+        Files.writeString(configDirectory.resolve("notes.txt"), "ignored\n");
+        Files.writeString(configDirectory.resolve("config-eu-west.txt"), "ignored\n");
+        Files.writeString(configDirectory.resolve("application.properties"), "ignored=true\n");
+
+        Thread.sleep(DEBOUNCE_MILLIS * 3);
+        verify(configManager, never()).reloadEnvironment(anyString());
+    }
+
+    @Test
+    void reloadsEachChangedEnvironmentSeparately() throws Exception {
+        Files.writeString(configDirectory.resolve("config-eu-west.properties"), "app.api.timeout=1\n");
+        Files.writeString(configDirectory.resolve("config-us-east.properties"), "app.api.timeout=2\n");
+
+        verify(configManager, timeout(5000)).reloadEnvironment("eu-west");
+        verify(configManager, timeout(5000)).reloadEnvironment("us-east");
+        Thread.sleep(DEBOUNCE_MILLIS * 3);
+        verify(configManager, times(2)).reloadEnvironment(anyString());
+    }
+
+    @Test
+    void onlyUpdatesIndexForEnvironmentsThatWereNeverLoaded() throws Exception {
+        when(configManager.isEnvironmentInUse("eu-west")).thenReturn(false);
+        Files.writeString(configDirectory.resolve("config-eu-west.properties"), "app.api.timeout=1\n");
+        Files.writeString(configDirectory.resolve("config-us-east.properties"), "app.api.timeout=2\n");
+
+        verify(configManager, timeout(5000)).reloadEnvironment("us-east");
+        Thread.sleep(DEBOUNCE_MILLIS * 3);
+        verify(configManager, never()).reloadEnvironment("eu-west");
+        assertTrue(environmentIndex.isIndexed("eu-west"));
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 环境索引测试
+ */
+class ConfigEnvironmentIndexTest {
+
+    @TempDir
+    Path configDirectory;
+
+    @Test
+    void discoversClasspathAndDirectoryEnvironments() throws IOException {
+        Files.writeString(configDirectory.resolve("config-eu-west.properties"), "app.redis.host=eu-redis\n");
+        Files.writeString(configDirectory.resolve("config-prod.properties"), "app.redis.host=override\n");
+        Files.writeString(configDirectory.resolve("notes.txt"), "ignored\n");
+
+        ConfigEnvironmentIndex index = new ConfigEnvironmentIndex(properties(configDirectory));
+
+        assertTrue(index.getEnvironmentNames().containsAll(Set.of("dev", "prod", "test", "eu-west")));
+        assertFalse(index.contains("notes"));
+        // 外部目录覆盖classpath中的同名环境
+        assertInstanceOf(FileSystemResource.class, index.getResource("prod"));
+    }
+
+    @Test
+    void findsFilesAddedAfterStartup() throws IOException {
+        ConfigEnvironmentIndex index = new ConfigEnvironmentIndex(properties(configDirectory));
+        assertFalse(index.contains("customer-42"));
+
+        Files.writeString(configDirectory.resolve("config-customer-42.properties"), "app.api.timeout=100\n");
+
+        assertTrue(index.contains("customer-42"));
+        assertFalse(index.contains("../customer-42"));
+    }
+
+    @Test
+    void isIndexedOnlyConsultsMemory() throws IOException {
+        ConfigEnvironmentIndex index = new ConfigEnvironmentIndex(properties(configDirectory));
+        Files.writeString(configDirectory.resolve("config-customer-7.properties"), "app.api.timeout=100\n");
+
+        assertTrue(index.isIndexed("dev"));
+        assertFalse(index.isIndexed(null));
+        // 未进入索引的文件不会被请求路径发现
+        assertFalse(index.isIndexed("customer-7"));
+
+        index.update("customer-7", configDirectory.resolve("config-customer-7.properties"));
+        assertTrue(index.isIndexed("customer-7"));
+    }
+
+    private static DynamicConfigProperties properties(Path directory) {
+        DynamicConfigProperties properties = new DynamicConfigProperties();
+        properties.setConfigDirectory(directory.toString());
+        return properties;
+    }
+}
@@ -0,0 +1,268 @@
+package com.example.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 环境切换事件异步分发测试
+ */
+class ConfigEventMulticasterTest {
+
+    private ConfigEventMulticaster multicaster;
+
+    @AfterEach
+    void tearDown() {
+        if (multicaster != null) {
+            multicaster.destroy();
+        }
+    }
+
+    private ConfigEventMulticaster create(int queueCapacity, DynamicConfigProperties.SlowListenerPolicy policy) {
+        return create(queueCapacity, policy, Duration.ZERO);
+    }
+
+    private ConfigEventMulticaster create(int queueCapacity, DynamicConfigProperties.SlowListenerPolicy policy,
+                                          Duration coalesceWindow) {
+        DynamicConfigProperties properties = new DynamicConfigProperties();
+        properties.getEvents().setQueueCapacity(queueCapacity);
+        properties.getEvents().setSlowListenerPolicy(policy);
+        properties.getEvents().setCoalesceWindow(coalesceWindow);
+        multicaster = new ConfigEventMulticaster(properties);
+        return multicaster;
+    }
+
+    private static EnvironmentChangeEvent event(long version) {
+        return event(version, "test", "dev", ConfigScope.GLOBAL, null);
+    }
+
+    private static EnvironmentChangeEvent event(long version, String oldEnv, String newEnv, ConfigScope scope,
+                                                Set<String> changedKeys) {
+        ConfigSnapshot snapshot = new ConfigSnapshot(version, newEnv, new AppConfig());
+        return new EnvironmentChangeEvent(ConfigEventMulticasterTest.class, oldEnv, newEnv, scope,
+                                          changedKeys, snapshot);
+    }
+
+    @Test
+    void deliversInVersionOrderOffTheCallerThread() throws Exception {
+        ConfigEventMulticaster multicaster = create(16, DynamicConfigProperties.SlowListenerPolicy.BLOCK);
+        List<Long> versions = new CopyOnWriteArrayList<>();
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(100);
+        multicaster.addApplicationListener((ApplicationListener<EnvironmentChangeEvent>) event -> {
+            versions.add(event.getVersion());
+            threads.add(Thread.currentThread());
+            done.countDown();
+        });
+
+        for (long version = 1; version <= 100; version++) {
+            multicaster.multicastEvent(event(version));
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < versions.size(); i++) {
+            assertEquals(i + 1, versions.get(i));
+        }
+        assertFalse(threads.contains(Thread.currentThread()));
+    }
+
+    @Test
+    void dropOldestKeepsLatestEventForSlowListener() throws Exception {
+        ConfigEventMulticaster multicaster = create(1, DynamicConfigProperties.SlowListenerPolicy.DROP_OLDEST);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch processed = new CountDownLatch(2);
+        List<Long> versions = new CopyOnWriteArrayList<>();
+        multicaster.addApplicationListener((ApplicationListener<EnvironmentChangeEvent>) event -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            versions.add(event.getVersion());
+            processed.countDown();
+        });
+
+        multicaster.multicastEvent(event(1));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        // 监听器处理版本1期间，队列只能容纳一个事件，2到4被依次挤掉
+        for (long version = 2; version <= 5; version++) {
+            multicaster.multicastEvent(event(version));
+        }
+        release.countDown();
+
+        assertTrue(processed.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(1L, 5L), versions);
+    }
+
+    @Test
+    void coalescesGlobalSwitchesWithinWindow() throws Exception {
+        ConfigEventMulticaster multicaster = create(16, DynamicConfigProperties.SlowListenerPolicy.BLOCK,
+                                                    Duration.ofMillis(200));
+        List<EnvironmentChangeEvent> received = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+        multicaster.addApplicationListener((ApplicationListener<EnvironmentChangeEvent>) event -> {
+            received.add(event);
+            done.countDown();
+        });
+
+        multicaster.multicastEvent(event(1, "dev", "test", ConfigScope.GLOBAL, Set.of("app.api.timeout")));
+        multicaster.multicastEvent(event(2, "test", "prod", ConfigScope.GLOBAL, Set.of("app.redis.host")));
+        multicaster.multicastEvent(event(3, "prod", "test", ConfigScope.GLOBAL, Set.of("app.api.timeout")));
+        // 其他作用域的事件到达时，先分发已合并的全局事件
+        multicaster.multicastEvent(event(4, "test", "dev", ConfigScope.TEMPORARY, Set.of()));
+        multicaster.multicastEvent(event(5, "test", "prod", ConfigScope.GLOBAL, Set.of("app.redis.host")));
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(3, received.size());
+
+        EnvironmentChangeEvent merged = received.get(0);
+        assertEquals("dev", merged.getOldEnvironment());
+        assertEquals("test", merged.getNewEnvironment());
+        assertEquals(3, merged.getVersion());
+        assertEquals(Set.of("app.api.timeout", "app.redis.host"), merged.getChangedKeys());
+
+        assertEquals(4, received.get(1).getVersion());
+        assertEquals(5, received.get(2).getVersion());
+        assertEquals(2L, multicaster.getStatistics().get("coalescedEvents"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recordsListenerLatencyAndFlagsSlowListeners() {
+        DynamicConfigProperties properties = new DynamicConfigProperties();
+        properties.getEvents().setAsync(false);
+        properties.getEvents().setSlowListenerBudget(Duration.ofMillis(10));
+        multicaster = new ConfigEventMulticaster(properties);
+        multicaster.addApplicationListener(new SlowListener());
+        multicaster.addApplicationListener(new FailingListener());
+
+        // 同步分发时监听器的异常照常抛给发布方
+        assertThrows(IllegalStateException.class, () -> multicaster.multicastEvent(event(1)));
+        assertThrows(IllegalStateException.class, () -> multicaster.multicastEvent(event(2)));
+
+        Map<String, Object> listeners = (Map<String, Object>) multicaster.getStatistics().get("listeners");
+        Map<String, Object> slow = (Map<String, Object>) listeners.get(SlowListener.class.getName());
+        assertEquals(2L, ((Map<String, Object>) slow.get("latency")).get("count"));
+        assertEquals(2L, slow.get("overBudget"));
+        assertEquals(true, slow.get("slow"));
+
+        Map<String, Object> failing = (Map<String, Object>) listeners.get(FailingListener.class.getName());
+        assertEquals(2L, failing.get("failures"));
+        assertEquals(false, failing.get("slow"));
+    }
+
+    @Test
+    void asyncListenerFailureDoesNotStopLaterEvents() throws Exception {
+        ConfigEventMulticaster multicaster = create(16, DynamicConfigProperties.SlowListenerPolicy.BLOCK);
+        List<Long> versions = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(2);
+        multicaster.addApplicationListener((ApplicationListener<EnvironmentChangeEvent>) event -> {
+            versions.add(event.getVersion());
+            done.countDown();
+            if (event.getVersion() == 1) {
+                throw new IllegalStateException("listener failure");
+            }
+        });
+
+        multicaster.multicastEvent(event(1));
+        multicaster.multicastEvent(event(2));
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(1L, 2L), versions);
+    }
+
+    @Test
+    void listenerPublishingFromItsOwnThreadDoesNotDeadlock() throws Exception {
+        ConfigEventMulticaster multicaster = create(1, DynamicConfigProperties.SlowListenerPolicy.BLOCK);
+        CountDownLatch queueFull = new CountDownLatch(1);
+        CountDownLatch republished = new CountDownLatch(1);
+        CountDownLatch latestProcessed = new CountDownLatch(1);
+        List<Long> versions = new CopyOnWriteArrayList<>();
+        multicaster.addApplicationListener((ApplicationListener<EnvironmentChangeEvent>) event -> {
+            versions.add(event.getVersion());
+            if (event.getVersion() == 1) {
+                try {
+                    assertTrue(queueFull.await(5, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                // 队列已被版本2占满，在自己的线程上再发布一个事件
+                multicaster.multicastEvent(event(3));
+                republished.countDown();
+            } else if (event.getVersion() == 3) {
+                latestProcessed.countDown();
+            }
+        });
+
+        multicaster.multicastEvent(event(1));
+        multicaster.multicastEvent(event(2));
+        queueFull.countDown();
+
+        assertTrue(republished.await(5, TimeUnit.SECONDS));
+        assertTrue(latestProcessed.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(1L, 3L), versions);
+    }
+
+    @Test
+    void blockedPublisherGivesUpAfterTimeout() throws Exception {
+        DynamicConfigProperties properties = new DynamicConfigProperties();
+        properties.getEvents().setQueueCapacity(1);
+        properties.getEvents().setBlockTimeout(Duration.ofMillis(50));
+        multicaster = new ConfigEventMulticaster(properties);
+        CountDownLatch release = new CountDownLatch(1);
+        multicaster.addApplicationListener((ApplicationListener<EnvironmentChangeEvent>) event -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        try {
+            multicaster.multicastEvent(event(1));
+            multicaster.multicastEvent(event(2));
+            // 版本1处理中、版本2占满队列，版本3等待超时后丢弃，不会一直阻塞
+            multicaster.multicastEvent(event(3));
+        } finally {
+            release.countDown();
+        }
+        assertEquals(1L, droppedEvents(multicaster));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static long droppedEvents(ConfigEventMulticaster multicaster) {
+        Map<String, Object> listeners = (Map<String, Object>) multicaster.getStatistics().get("listeners");
+        Map<String, Object> listener = (Map<String, Object>) listeners.values().iterator().next();
+        return (Long) listener.get("dropped");
+    }
+
+    private static final class SlowListener implements ApplicationListener<EnvironmentChangeEvent> {
+        @Override
+        public void onApplicationEvent(EnvironmentChangeEvent event) {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static final class FailingListener implements ApplicationListener<EnvironmentChangeEvent> {
+        @Override
+        public void onApplicationEvent(EnvironmentChangeEvent event) {
+            throw new IllegalStateException("listener failure");
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 配置快照测试
+ */
+class ConfigSnapshotTest {
+
+    @Test
+    void snapshotConfigIsReadOnly() throws IOException {
+        AppConfig config = AppConfigBinder.bind(
+                PropertiesLoaderUtils.loadProperties(new ClassPathResource("config-prod.properties")));
+        ConfigSnapshot snapshot = new ConfigSnapshot(1, "prod", config);
+        int timeout = config.getApi().getTimeout();
+
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.getConfig().getApi().setTimeout(1));
+        assertThrows(UnsupportedOperationException.class,
+                     () -> snapshot.getConfig().getDatabase().getPool().setMaxSize(1));
+        assertThrows(UnsupportedOperationException.class,
+                     () -> snapshot.getConfig().getNotification().getSms().setEnabled(true));
+        assertThrows(UnsupportedOperationException.class,
+                     () -> snapshot.getConfig().setApi(new AppConfig.ApiConfig()));
+        // 重新发布的快照共享同一个已冻结的实例
+        assertThrows(UnsupportedOperationException.class,
+                     () -> snapshot.withVersion(2).getConfig().getRedis().setPort(1));
+
+        assertEquals(timeout, snapshot.getConfig().getApi().getTimeout());
+        assertEquals(timeout, snapshot.getStore().getInt(ConfigStoreLayout.slotOf("app.api.timeout")));
+    }
+
+    @Test
+    void frozenConfigCanStillBeCopiedOut() throws IOException {
+        AppConfig config = AppConfigBinder.bind(
+                PropertiesLoaderUtils.loadProperties(new ClassPathResource("config-prod.properties")));
+        ConfigSnapshot snapshot = new ConfigSnapshot(1, "prod", config);
+
+        AppConfig target = new AppConfig();
+        AppConfigBinder.copy(snapshot.getConfig(), target);
+        target.getApi().setTimeout(1);
+
+        assertEquals(1, target.getApi().getTimeout());
+        assertNotEquals(1, snapshot.getConfig().getApi().getTimeout());
+    }
+}
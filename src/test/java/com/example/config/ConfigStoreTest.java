@@ -0,0 +1,58 @@
+package com.example.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 扁平配置存储测试
+ */
+class ConfigStoreTest {
+
+    @Test
+    void storeMatchesBoundConfig() throws IOException {
+        AppConfig config = AppConfigBinder.bind(
+                PropertiesLoaderUtils.loadProperties(new ClassPathResource("config-prod.properties")));
+        ConfigStore store = ConfigStore.from(config);
+
+        assertEquals(config.getDatabase().getUrl(), store.getString(ConfigStoreLayout.slotOf("app.database.url")));
+        assertEquals(config.getDatabase().getPool().getMaxSize(),
+                     store.getInt(ConfigStoreLayout.slotOf("app.database.pool.max-size")));
+        assertEquals(config.getRedis().getPort(), store.getInt(ConfigStoreLayout.slotOf("app.redis.port")));
+        assertEquals(config.getApi().getTimeout(), store.getInt(ConfigStoreLayout.slotOf("app.api.timeout")));
+        assertEquals(config.getFeature().isEnableDebug(),
+                     store.getBoolean(ConfigStoreLayout.slotOf("app.feature.enable-debug")));
+        assertEquals(config.getNotification().getSms().isEnabled(),
+                     store.getBoolean(ConfigStoreLayout.slotOf("app.notification.sms.enabled")));
+    }
+
+    @Test
+    void everyBinderKeyHasSlot() {
+        for (String key : AppConfigBinder.keys()) {
+            assertNotNull(ConfigStoreLayout.slotOf(key), key);
+        }
+    }
+
+    @Test
+    void rejectsMismatchedSlotType() {
+        ConfigStore store = ConfigStore.from(new AppConfig());
+        ConfigSlot port = ConfigStoreLayout.slotOf("app.redis.port");
+
+        assertThrows(IllegalArgumentException.class, () -> store.getString(port));
+    }
+
+    @Test
+    void layoutIsFixedToBinderKeys() {
+        assertEquals(AppConfigBinder.keys().size(), ConfigStoreLayout.slots().size());
+        int total = 0;
+        for (ConfigSlot.Type type : ConfigSlot.Type.values()) {
+            total += ConfigStoreLayout.count(type);
+        }
+        assertEquals(AppConfigBinder.keys().size(), total);
+        assertNull(ConfigStoreLayout.slotOf("app.api.missing"));
+    }
+}
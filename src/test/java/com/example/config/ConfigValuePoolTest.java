@@ -0,0 +1,52 @@
+package com.example.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 配置值字符串池测试
+ */
+class ConfigValuePoolTest {
+
+    @Test
+    void returnsCanonicalInstanceAndCountsSavedBytes() {
+        ConfigValuePool pool = new ConfigValuePool();
+        String first = new String("localhost");
+        String second = new String("localhost");
+
+        assertSame(first, pool.intern(first));
+        assertSame(first, pool.intern(second));
+        assertSame(first, pool.intern(first));
+        assertNull(pool.intern(null));
+
+        Map<String, Object> stats = pool.getStatistics();
+        assertEquals(1, stats.get("pooledStrings"));
+        assertEquals(3L, stats.get("lookups"));
+        assertEquals(1L, stats.get("deduplicated"));
+        assertEquals(ConfigValuePool.estimateSize(second), stats.get("cumulativeBytesDeduplicated"));
+    }
+
+    @Test
+    void reloadingSameValuesAccumulatesDeduplicatedBytes() {
+        ConfigValuePool pool = new ConfigValuePool();
+        String canonical = pool.intern(new String("prod-db.example.com"));
+
+        pool.intern(new String("prod-db.example.com"));
+        pool.intern(new String("prod-db.example.com"));
+
+        // 累计值：同一个值每次去重都计入，池中仍只有一个规范实例
+        assertEquals(2 * ConfigValuePool.estimateSize(canonical),
+                     pool.getStatistics().get("cumulativeBytesDeduplicated"));
+        assertEquals(1, pool.getStatistics().get("pooledStrings"));
+    }
+
+    @Test
+    void estimatesCompactStringSize() {
+        assertEquals(24 + 32, ConfigValuePool.estimateSize("localhost"));
+        assertEquals(24 + 24, ConfigValuePool.estimateSize("6379"));
+        assertEquals(24 + 24, ConfigValuePool.estimateSize("开发环境"));
+    }
+}
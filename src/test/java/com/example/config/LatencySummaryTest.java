@@ -0,0 +1,38 @@
+package com.example.config;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 延迟统计测试
+ */
+class LatencySummaryTest {
+
+    @Test
+    void summarizesInMicros() {
+        Histogram histogram = LatencySummary.newHistogram();
+        for (long micros = 1; micros <= 1000; micros++) {
+            histogram.recordValue(micros * 1000);
+        }
+
+        Map<String, Object> summary = LatencySummary.of(histogram);
+        assertEquals(1000L, summary.get("count"));
+        assertEquals(1.0, (Double) summary.get("minMicros"), 0.001);
+        assertEquals(500.5, (Double) summary.get("meanMicros"), 0.5);
+        assertEquals(500.0, (Double) summary.get("p50Micros"), 0.5);
+        assertEquals(990.0, (Double) summary.get("p99Micros"), 1.0);
+        assertEquals(1000.0, (Double) summary.get("maxMicros"), 1.0);
+    }
+
+    @Test
+    void emptyHistogramReportsZeros() {
+        Map<String, Object> summary = LatencySummary.of(LatencySummary.newHistogram());
+        assertEquals(0L, summary.get("count"));
+        assertEquals(0.0, summary.get("meanMicros"));
+        assertEquals(0.0, summary.get("p99Micros"));
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 内存映射配置解析测试，结果必须与java.util.Properties一致
+ */
+class MappedPropertiesTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void matchesPropertiesForEnvironmentFiles() throws IOException {
+        for (String env : new String[] {"dev", "prod", "test"}) {
+            ClassPathResource resource = new ClassPathResource("config-" + env + ".properties");
+            Properties expected = PropertiesLoaderUtils.loadProperties(resource);
+            MappedProperties actual = MappedProperties.load(resource.getFile().toPath());
+
+            assertEquals(toMap(expected), new HashMap<>(actual), env);
+        }
+    }
+
+    @Test
+    void matchesPropertiesForSyntaxEdgeCases() throws IOException {
+        String content = "# comment\n"
+                + "! another comment\n"
+                + "plain=1\n"
+                + "  spaced  =  2  \r\n"
+                + "colon:3\r"
+                + "whitespace 4\n"
+                + "empty=\n"
+                + "keyonly\n"
+                + "dup=first\n"
+                + "dup=second\n"
+                + "escaped\\ key\\=x=\\tvalue\\u0041\n"
+                + "continued=abc\\\n    def\\\r\n\tghi\n"
+                + "trailing=backslashes\\\\\n"
+                + "latin=café\n"
+                + "last=no-newline\\";
+
+        assertMatchesProperties(content);
+    }
+
+    @Test
+    void lookupsAreLazyAndReadOnly() throws IOException {
+        Path file = directory.resolve("config-large.properties");
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            content.append("app.key").append(i).append('=').append("value").append(i).append('\n');
+        }
+        Files.writeString(file, content, StandardCharsets.ISO_8859_1);
+
+        MappedProperties properties = MappedProperties.load(file);
+
+        assertEquals(10000, properties.size());
+        assertEquals("value4242", properties.get("app.key4242"));
+        assertTrue(properties.containsKey("app.key0"));
+        assertNull(properties.get("app.key10000"));
+        assertNull(properties.get(42));
+        assertThrows(UnsupportedOperationException.class, () -> properties.put("app.key0", "x"));
+        assertThrows(UnsupportedOperationException.class,
+                     () -> properties.entrySet().iterator().next().setValue("x"));
+    }
+
+    private static void assertMatchesProperties(String content) throws IOException {
+        byte[] bytes = content.getBytes(StandardCharsets.ISO_8859_1);
+        Properties expected = new Properties();
+        expected.load(new ByteArrayInputStream(bytes));
+
+        MappedProperties actual = MappedProperties.parse(ByteBuffer.wrap(bytes));
+
+        assertEquals(toMap(expected), new HashMap<>(actual));
+        for (String name : expected.stringPropertyNames()) {
+            assertEquals(expected.getProperty(name), actual.get(name), name);
+        }
+    }
+
+    private static Map<String, String> toMap(Properties properties) {
+        Map<String, String> map = new HashMap<>();
+        for (String name : properties.stringPropertyNames()) {
+            map.put(name, properties.getProperty(name));
+        }
+        return map;
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 租户快照缓存测试
+ */
+class TenantSnapshotCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private ConfigSnapshot load(String tenantId) {
+        loads.incrementAndGet();
+        return tenantId.startsWith("missing")
+                ? null
+                : new ConfigSnapshot(0, "dev", new AppConfig(), Map.of("tenant.id", tenantId));
+    }
+
+    @Test
+    void hitsDoNotReload() {
+        TenantSnapshotCache cache = new TenantSnapshotCache(10, 100, this::load, snapshot -> 1);
+
+        ConfigSnapshot first = cache.get("acme");
+        assertSame(first, cache.get("acme"));
+        assertEquals(1, loads.get());
+        assertNull(cache.get("missing-tenant"));
+
+        Map<String, Object> stats = cache.getStatistics();
+        assertEquals(1L, stats.get("hits"));
+        assertEquals(2L, stats.get("misses"));
+        assertEquals(1L, stats.get("loadFailures"));
+        assertEquals(1L, stats.get("weightBytes"));
+    }
+
+    @Test
+    void coldTenantDoesNotEvictHotTenants() {
+        TenantSnapshotCache cache = new TenantSnapshotCache(3, 100, this::load, snapshot -> 1);
+        for (int i = 0; i < 10; i++) {
+            cache.get("hot-a");
+            cache.get("hot-b");
+            cache.get("hot-c");
+        }
+
+        // 只访问一次的租户不能通过准入，但仍然返回快照
+        assertNotNull(cache.get("cold"));
+        assertEquals(3, cache.getStatistics().get("size"));
+        assertEquals(1L, cache.getStatistics().get("rejections"));
+
+        // 频率超过缓存中的租户后才会淘汰
+        for (int i = 0; i < 20; i++) {
+            cache.get("rising");
+        }
+        Map<String, Object> stats = cache.getStatistics();
+        assertEquals(3, stats.get("size"));
+        assertTrue((Long) stats.get("evictions") >= 1);
+        int loadsBefore = loads.get();
+        cache.get("rising");
+        assertEquals(loadsBefore, loads.get());
+    }
+
+    @Test
+    void invalidateRemovesMatchingTenants() {
+        TenantSnapshotCache cache = new TenantSnapshotCache(10, 100, this::load, snapshot -> 2);
+        cache.get("a");
+        cache.get("b");
+
+        assertTrue(cache.invalidate("a"));
+        assertFalse(cache.invalidate("a"));
+        assertEquals(1, cache.invalidateIf(snapshot -> "dev".equals(snapshot.getEnvironment())));
+        assertEquals(0, cache.getStatistics().get("size"));
+        assertEquals(0L, cache.getStatistics().get("weightBytes"));
+    }
+
+    @Test
+    void concurrentMissesLoadOnce() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TenantSnapshotCache cache = new TenantSnapshotCache(10, 100, tenantId -> {
+            loading.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return load(tenantId);
+        }, snapshot -> 1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ConfigSnapshot> first = executor.submit(() -> cache.get("acme"));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            Future<ConfigSnapshot> second = executor.submit(() -> cache.get("acme"));
+            // 等第二个调用进入等待后再放行加载
+            Thread.sleep(100);
+            release.countDown();
+
+            assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void loadRacingInvalidationIsNotCached() {
+        TenantSnapshotCache[] holder = new TenantSnapshotCache[1];
+        holder[0] = new TenantSnapshotCache(10, 100, tenantId -> {
+            ConfigSnapshot snapshot = load(tenantId);
+            // 加载期间全局环境变化
+            holder[0].invalidateIf(s -> true);
+            return snapshot;
+        }, snapshot -> 1);
+
+        assertNotNull(holder[0].get("acme"));
+        assertEquals(0, holder[0].getStatistics().get("size"));
+    }
+
+    @Test
+    void overlayPropertiesShadowBase() {
+        Map<String, String> base = Map.of("app.redis.host", "localhost", "app.redis.port", "6379");
+        OverlayProperties properties = new OverlayProperties(base, Map.of("app.redis.host", "tenant-redis", "extra", "1"));
+
+        assertEquals(3, properties.size());
+        assertEquals("tenant-redis", properties.get("app.redis.host"));
+        assertEquals("6379", properties.get("app.redis.port"));
+        assertEquals(Map.of("app.redis.host", "tenant-redis", "app.redis.port", "6379", "extra", "1"), Map.copyOf(properties));
+    }
+}
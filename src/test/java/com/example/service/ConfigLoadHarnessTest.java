@@ -0,0 +1,98 @@
+package com.example.service;
+
+import com.example.config.AppConfig;
+import com.example.config.DynamicConfigManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doReturn;
+
+/**
+ * 读写并发负载测试
+ * 业务方法每次调用都输出日志，这里调到WARN避免日志淹没测量
+ */
+@SpringBootTest(properties = "logging.level.com.example=WARN")
+class ConfigLoadHarnessTest {
+
+    @Autowired
+    private ConfigLoadHarness loadHarness;
+
+    @Autowired
+    private DynamicConfigManager configManager;
+
+    @SpyBean
+    private ConfigDemoService demoService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void readsStayConsistentWhileSwitching() throws Exception {
+        String originalEnvironment = configManager.getCurrentEnvironment();
+
+        Map<String, Object> report = loadHarness.run(4, 1, Duration.ofMillis(500), Duration.ZERO);
+
+        Map<String, Object> reads = (Map<String, Object>) report.get("reads");
+        Map<String, Object> switches = (Map<String, Object>) report.get("switches");
+        Map<String, Object> tornReads = (Map<String, Object>) report.get("tornReads");
+        assertTrue((Long) reads.get("operations") > 0);
+        assertEquals(0L, reads.get("errors"));
+        assertTrue((Long) switches.get("operations") > 0);
+        assertEquals(0L, switches.get("failures"));
+        assertTrue((Double) reads.get("p999Micros") >= (Double) reads.get("p50Micros"));
+        // 业务方法从同一个快照读取，返回的配置值不应来自不同环境
+        assertEquals(0L, tornReads.get("service"));
+
+        assertEquals(originalEnvironment, configManager.getCurrentEnvironment());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void detectsResultsMixingEnvironments() throws Exception {
+        AppConfig.DatabaseConfig database = configManager.getCurrentConfig().getDatabase();
+        // URL来自当前环境，连接池大小不是
+        doReturn(String.format("已连接到数据库: %s (用户: %s, 最大连接数: %d)", database.getUrl(),
+                               database.getUsername(), database.getPool().getMaxSize() + 1))
+                .when(demoService).connectToDatabase();
+
+        Map<String, Object> report = loadHarness.run(1, 0, Duration.ofMillis(100), Duration.ZERO);
+
+        Map<String, Object> tornReads = (Map<String, Object>) report.get("tornReads");
+        assertTrue((Long) tornReads.get("service") > 0);
+        assertEquals(0L, tornReads.get("sharedInstance"));
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class,
+                     () -> loadHarness.run(0, 1, Duration.ofMillis(100), Duration.ZERO));
+        assertThrows(IllegalArgumentException.class,
+                     () -> loadHarness.run(1, 1, Duration.ZERO, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class,
+                     () -> loadHarness.run(ConfigLoadHarness.MAX_READERS + 1, 1, Duration.ofMillis(100), Duration.ZERO));
+        assertThrows(IllegalArgumentException.class,
+                     () -> loadHarness.run(1, ConfigLoadHarness.MAX_WRITERS + 1, Duration.ofMillis(100), Duration.ZERO));
+        assertThrows(IllegalArgumentException.class,
+                     () -> loadHarness.run(1, 1, ConfigLoadHarness.MAX_DURATION.plusMillis(1), Duration.ZERO));
+    }
+
+    @Test
+    void refusesToRunWhileOverridesAreActive() throws Exception {
+        int timeout = configManager.getCurrentConfig().getApi().getTimeout();
+        assertTrue(configManager.applyOverrides(Map.of("app.api.timeout", String.valueOf(timeout + 1))));
+        try {
+            // 写线程的全局切换会丢弃属性覆盖
+            assertThrows(IllegalStateException.class,
+                         () -> loadHarness.run(1, 1, Duration.ofMillis(100), Duration.ZERO));
+            assertEquals(String.valueOf(timeout + 1), configManager.getActiveOverrides().get("app.api.timeout"));
+        } finally {
+            while (configManager.rollbackOverrides()) {
+                // 恢复测试前的配置
+            }
+        }
+    }
+}